@@ -18,13 +18,13 @@ public class BtreeOperationsController {
     @javafx.fxml.FXML
     private Pane mainPain;
 
-    private BTree btree;
+    private BTree<Integer> btree;
     private TreeVisualizer visualizer;
     private Pane treePane;
 
     public void initialize() {
         // Inicializar el árbol y el visualizador
-        btree = new BTree();
+        btree = new BTree<>(true);
         visualizer = new TreeVisualizer();
 
         // Encontrar el ScrollPane y configurarlo
@@ -240,9 +240,7 @@ public class BtreeOperationsController {
             java.util.List<Integer> valuesList = new java.util.ArrayList<>(uniqueValues);
             java.util.Collections.shuffle(valuesList);
 
-            for (Integer value : valuesList) {
-                btree.add(value);
-            }
+            btree.addAll(valuesList);
 
             // Validar estructura antes de visualizar
             if (!btree.validateStructure()) {
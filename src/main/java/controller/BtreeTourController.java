@@ -21,13 +21,13 @@ public class BtreeTourController {
     @javafx.fxml.FXML
     private Text tourLabel;
 
-    private BTree btree;
+    private BTree<Integer> btree;
     private TreeVisualizer visualizer;
     private Pane treePane;
 
     public void initialize() {
         // Inicializar el árbol y el visualizador
-        btree = new BTree();
+        btree = new BTree<>(true);
         visualizer = new TreeVisualizer();
 
         // Encontrar el ScrollPane y configurarlo
@@ -106,9 +106,7 @@ public class BtreeTourController {
             java.util.List<Integer> valuesList = new java.util.ArrayList<>(uniqueValues);
             java.util.Collections.shuffle(valuesList);
 
-            for (Integer value : valuesList) {
-                btree.add(value);
-            }
+            btree.addAll(valuesList);
 
             // Validar estructura antes de visualizar
             if (!btree.validateStructure()) {
@@ -0,0 +1,254 @@
+package domain;
+
+//Árbol AVL: árbol de búsqueda autobalanceado, ordenado según su comparador.
+//Todas las operaciones (add, remove, contains, height(element), min, max) son O(log n)
+public class AVLTree<T> implements Tree<T> {
+    private BTreeNode<T> root; //se refiere a la raiz del arbol
+    private final java.util.Comparator<? super T> comparator;
+
+    //usa el orden natural de los elementos (deben ser Comparable)
+    public AVLTree() {
+        this(BTree.naturalOrder());
+    }
+
+    public AVLTree(java.util.Comparator<? super T> comparator) {
+        this.comparator = java.util.Objects.requireNonNull(comparator);
+    }
+
+    @Override
+    public int size() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("AVL Tree is empty");
+        return root.size;
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return root==null;
+    }
+
+    @Override
+    public boolean contains(T element) throws TreeException {
+        if(isEmpty())
+            throw new TreeException("AVL Tree is empty");
+        return findNode(element) != null;
+    }
+
+    private BTreeNode<T> findNode(T element){
+        BTreeNode<T> node = root;
+        while(node!=null){
+            int cmp = comparator.compare(element, node.data);
+            if(cmp==0) return node;
+            node = cmp < 0 ? node.left : node.right;
+        }
+        return null;
+    }
+
+    @Override
+    public void add(T element) {
+        root = add(root, element);
+    }
+
+    private BTreeNode<T> add(BTreeNode<T> node, T element){
+        if(node==null) return new BTreeNode<>(element);
+
+        int cmp = comparator.compare(element, node.data);
+        if(cmp<0) node.left = add(node.left, element);
+        else if(cmp>0) node.right = add(node.right, element);
+        else return node; //no se agregan duplicados
+
+        return rebalance(node);
+    }
+
+    @Override
+    public void remove(T element) throws TreeException {
+        if(isEmpty())
+            throw new TreeException("AVL Tree is empty");
+        root = remove(root, element);
+    }
+
+    private BTreeNode<T> remove(BTreeNode<T> node, T element){
+        if(node==null) return null;
+
+        int cmp = comparator.compare(element, node.data);
+        if(cmp<0) node.left = remove(node.left, element);
+        else if(cmp>0) node.right = remove(node.right, element);
+        else{
+            //caso 1 y 2. el nodo tiene a lo sumo un hijo
+            if(node.left==null) return node.right;
+            if(node.right==null) return node.left;
+            //caso 3. el nodo tiene dos hijos: se reemplaza por el sucesor (mínimo del subárbol der)
+            BTreeNode<T> successor = min(node.right);
+            node.data = successor.data;
+            node.right = remove(node.right, successor.data);
+        }
+        return rebalance(node);
+    }
+
+    //devuelve el número de ancestros del elemento (0 si no existe)
+    @Override
+    public int height(T element) throws TreeException {
+        if(isEmpty())
+            throw new TreeException("AVL Tree is empty");
+        int level = 0;
+        BTreeNode<T> node = root;
+        while(node!=null){
+            int cmp = comparator.compare(element, node.data);
+            if(cmp==0) return level;
+            node = cmp < 0 ? node.left : node.right;
+            level++;
+        }
+        return 0;
+    }
+
+    @Override
+    public int height() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("AVL Tree is empty");
+        return height(root);
+    }
+
+    private int height(BTreeNode<T> node){
+        return node==null ? -1 : node.height;
+    }
+
+    @Override
+    public TreeNodeView<T> root() {
+        return root;
+    }
+
+    @Override
+    public T min() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("AVL Tree is empty");
+        return min(root).data;
+    }
+
+    private BTreeNode<T> min(BTreeNode<T> node){
+        while(node.left!=null) node = node.left;
+        return node;
+    }
+
+    @Override
+    public T max() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("AVL Tree is empty");
+        BTreeNode<T> node = root;
+        while(node.right!=null) node = node.right;
+        return node.data;
+    }
+
+    // ---------------------------------------------- Balanceo
+    private void updateHeight(BTreeNode<T> node){
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        node.size = (node.left==null ? 0 : node.left.size) + (node.right==null ? 0 : node.right.size) + 1;
+    }
+
+    private int balanceFactor(BTreeNode<T> node){
+        return height(node.left) - height(node.right);
+    }
+
+    private BTreeNode<T> rebalance(BTreeNode<T> node){
+        updateHeight(node);
+        int balance = balanceFactor(node);
+
+        if(balance>1){ //cargado a la izquierda
+            if(balanceFactor(node.left)<0) node.left = rotateLeft(node.left); //caso izq-der
+            return rotateRight(node);
+        }
+        if(balance<-1){ //cargado a la derecha
+            if(balanceFactor(node.right)>0) node.right = rotateRight(node.right); //caso der-izq
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private BTreeNode<T> rotateRight(BTreeNode<T> node){
+        BTreeNode<T> aux = node.left;
+        node.left = aux.right;
+        aux.right = node;
+        updateHeight(node);
+        updateHeight(aux);
+        return aux;
+    }
+
+    private BTreeNode<T> rotateLeft(BTreeNode<T> node){
+        BTreeNode<T> aux = node.right;
+        node.right = aux.left;
+        aux.left = node;
+        updateHeight(node);
+        updateHeight(aux);
+        return aux;
+    }
+
+    // ---------------------------------------------- Recorridos
+    @Override
+    public String preOrder() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("AVL Tree is empty");
+        StringBuilder result = new StringBuilder();
+        preOrder(root, result);
+        return result.toString().trim();
+    }
+
+    private void preOrder(BTreeNode<T> node, StringBuilder result){
+        if(node!=null){
+            result.append(node.data).append(" ");
+            preOrder(node.left, result);
+            preOrder(node.right, result);
+        }
+    }
+
+    @Override
+    public String inOrder() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("AVL Tree is empty");
+        StringBuilder result = new StringBuilder();
+        inOrder(root, result);
+        return result.toString().trim();
+    }
+
+    private void inOrder(BTreeNode<T> node, StringBuilder result){
+        if(node!=null){
+            inOrder(node.left, result);
+            result.append(node.data).append(" ");
+            inOrder(node.right, result);
+        }
+    }
+
+    @Override
+    public String postOrder() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("AVL Tree is empty");
+        StringBuilder result = new StringBuilder();
+        postOrder(root, result);
+        return result.toString().trim();
+    }
+
+    private void postOrder(BTreeNode<T> node, StringBuilder result){
+        if(node!=null){
+            postOrder(node.left, result);
+            postOrder(node.right, result);
+            result.append(node.data).append(" ");
+        }
+    }
+
+    @Override
+    public String toString() {
+        String result;
+        try {
+            result = "PreOrder: "+preOrder();
+            result+= "\nInOrder: "+inOrder();
+            result+= "\nPostOrder: "+postOrder();
+
+        } catch (TreeException e) {
+            result = "AVL Tree is empty";
+        }
+        return result;
+    }
+}
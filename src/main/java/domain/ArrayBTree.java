@@ -0,0 +1,364 @@
+package domain;
+
+//Árbol binario implícito (distribución de montículo): los hijos del elemento
+//en la posición i están en 2i+1 y 2i+2, por lo que no se guardan referencias.
+//El árbol siempre es completo, y los recorridos son aritmética de índices
+//sobre un arreglo que se recorre en el orden de la memoria.
+//Sin índice, cada elemento cuesta solo su lugar en el arreglo. El índice opcional
+//valor -> posición (una tabla de ints con direccionamiento abierto, sin objetos por
+//elemento) evita recorrer el arreglo en add, contains, remove y height(e), a cambio
+//de 8 a 16 bytes más por elemento.
+public class ArrayBTree<T> implements Tree<T> {
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int EMPTY = 0; //las casillas guardan posición + 1
+
+    private Object[] data;
+    private int count; //número de elementos; ocupan las posiciones 0..count-1
+    private final java.util.Comparator<? super T> comparator;
+    private int[] slots; //índice opcional: sondeo lineal, capacidad potencia de 2 (null sin índice)
+
+    //usa el orden natural de los elementos (deben ser Comparable)
+    public ArrayBTree() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public ArrayBTree(int capacity) {
+        this(capacity, BTree.naturalOrder());
+    }
+
+    public ArrayBTree(int capacity, java.util.Comparator<? super T> comparator) {
+        this(capacity, comparator, false);
+    }
+
+    //indexed = true mantiene el índice valor -> posición junto al arreglo
+    public ArrayBTree(boolean indexed) {
+        this(DEFAULT_CAPACITY, BTree.naturalOrder(), indexed);
+    }
+
+    //con índice, el comparador debe ser consistente con equals/hashCode
+    public ArrayBTree(int capacity, java.util.Comparator<? super T> comparator, boolean indexed) {
+        this.data = new Object[Math.max(1, capacity)];
+        this.comparator = java.util.Objects.requireNonNull(comparator);
+        if (indexed) this.slots = new int[16];
+    }
+
+    public boolean isIndexed() {
+        return slots != null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T element(int i) {
+        return (T) data[i];
+    }
+
+    @Override
+    public int size() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        return count;
+    }
+
+    @Override
+    public void clear() {
+        java.util.Arrays.fill(data, 0, count, null);
+        count = 0;
+        if (slots != null) java.util.Arrays.fill(slots, EMPTY);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return count==0;
+    }
+
+    @Override
+    public boolean contains(T element) throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        return indexOf(element) != -1;
+    }
+
+    private int indexOf(T element) {
+        if (slots == null) {
+            for (int i = 0; i < count; i++) {
+                if (comparator.compare(element(i), element) == 0) return i;
+            }
+            return -1;
+        }
+        for (int slot = home(element); slots[slot] != EMPTY; slot = (slot + 1) & (slots.length - 1)) {
+            if (comparator.compare(element(slots[slot] - 1), element) == 0) return slots[slot] - 1;
+        }
+        return -1;
+    }
+
+    // ---------------------------------------------- Índice valor -> posición
+
+    private int home(Object element) {
+        int h = java.util.Objects.hashCode(element) * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (slots.length - 1);
+    }
+
+    //casilla que guarda la posición dada
+    private int slotOf(int position) {
+        int slot = home(data[position]);
+        while (slots[slot] != position + 1) slot = (slot + 1) & (slots.length - 1);
+        return slot;
+    }
+
+    private void link(int position) {
+        if ((count + 1) * 2 > slots.length) {
+            int[] old = slots;
+            slots = new int[old.length * 2];
+            for (int stored : old) {
+                if (stored != EMPTY) place(stored);
+            }
+        }
+        place(position + 1);
+    }
+
+    private void place(int stored) {
+        int slot = home(data[stored - 1]);
+        while (slots[slot] != EMPTY) slot = (slot + 1) & (slots.length - 1);
+        slots[slot] = stored;
+    }
+
+    //borra la casilla y corre hacia atrás las siguientes del grupo que pueden ocuparla,
+    //así la búsqueda puede detenerse en la primera casilla vacía
+    private void unlink(int position) {
+        int mask = slots.length - 1;
+        int hole = slotOf(position);
+        slots[hole] = EMPTY;
+        for (int slot = (hole + 1) & mask; slots[slot] != EMPTY; slot = (slot + 1) & mask) {
+            int home = home(data[slots[slot] - 1]);
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                slots[hole] = slots[slot];
+                slots[slot] = EMPTY;
+                hole = slot;
+            }
+        }
+    }
+
+    //el nuevo elemento ocupa la siguiente posición libre del último nivel
+    @Override
+    public void add(T element) {
+        if (indexOf(element) != -1) return; // No agregar duplicados
+        if (count == data.length) {
+            data = java.util.Arrays.copyOf(data, data.length * 2);
+        }
+        data[count] = element;
+        if (slots != null) link(count);
+        count++;
+    }
+
+    //el hueco se llena con el último elemento del último nivel,
+    //así el árbol sigue siendo completo sin importar cuántos hijos tenga el nodo
+    @Override
+    public void remove(T element) throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        int i = indexOf(element);
+        if (i == -1) return;
+        if (slots != null) {
+            unlink(i);
+            if (i != count - 1) slots[slotOf(count - 1)] = i + 1;
+        }
+        data[i] = data[count - 1];
+        data[--count] = null;
+    }
+
+    @Override
+    public int height(T element) throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        int i = indexOf(element);
+        return i == -1 ? 0 : levelOf(i);
+    }
+
+    @Override
+    public int height() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        return levelOf(count - 1);
+    }
+
+    //nivel de la posición i: floor(log2(i + 1))
+    private int levelOf(int i) {
+        return 31 - Integer.numberOfLeadingZeros(i + 1);
+    }
+
+    //posición del hijo izquierdo/derecho, o -1 si no existe
+    private int left(int i) {
+        long child = 2L * i + 1;
+        return child < count ? (int) child : -1;
+    }
+
+    private int right(int i) {
+        long child = 2L * i + 2;
+        return child < count ? (int) child : -1;
+    }
+
+    @Override
+    public T min() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        T min = element(0);
+        for (int i = 1; i < count; i++) {
+            if (comparator.compare(element(i), min) < 0) min = element(i);
+        }
+        return min;
+    }
+
+    @Override
+    public T max() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        T max = element(0);
+        for (int i = 1; i < count; i++) {
+            if (comparator.compare(element(i), max) > 0) max = element(i);
+        }
+        return max;
+    }
+
+    //las hojas son exactamente la segunda mitad del arreglo
+    public int totalLeaves() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        return count - count / 2;
+    }
+
+    // ---------------------------------------------- Recorridos
+    //la pila de índices nunca supera la altura + 2, que es a lo sumo 33
+
+    @Override
+    public String preOrder() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        StringBuilder result = new StringBuilder();
+        int[] stack = new int[Integer.SIZE + 2];
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int i = stack[--top];
+            result.append(data[i]).append(" ");
+            if (right(i) != -1) stack[top++] = right(i);
+            if (left(i) != -1) stack[top++] = left(i);
+        }
+        return result.toString().trim();
+    }
+
+    @Override
+    public String inOrder() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        StringBuilder result = new StringBuilder();
+        int[] stack = new int[Integer.SIZE + 2];
+        int top = 0;
+        int i = 0;
+        while (i != -1 || top > 0) {
+            while (i != -1) {
+                stack[top++] = i;
+                i = left(i);
+            }
+            i = stack[--top];
+            result.append(data[i]).append(" ");
+            i = right(i);
+        }
+        return result.toString().trim();
+    }
+
+    @Override
+    public String postOrder() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        StringBuilder result = new StringBuilder();
+        int[] stack = new int[Integer.SIZE + 2];
+        int top = 0;
+        int i = 0;
+        int lastVisited = -1;
+        while (i != -1 || top > 0) {
+            if (i != -1) {
+                stack[top++] = i;
+                i = left(i);
+            } else {
+                int peek = stack[top - 1];
+                int right = right(peek);
+                if (right != -1 && lastVisited != right) {
+                    i = right;
+                } else {
+                    result.append(data[peek]).append(" ");
+                    lastVisited = stack[--top];
+                }
+            }
+        }
+        return result.toString().trim();
+    }
+
+    //copia inmutable de la estructura (O(n) nodos) para recorrerla con
+    //TreeVisitor o dibujarla; null si el árbol está vacío
+    //se arma de la última posición a la primera: los hijos siempre van después del padre
+    @Override
+    public TreeNodeView<T> root() {
+        if (isEmpty()) return null;
+        java.util.List<PersistentBTree.Node<T>> copies = new java.util.ArrayList<>(java.util.Collections.nCopies(count, null));
+        for (int i = count - 1; i >= 0; i--) {
+            int left = left(i), right = right(i);
+            copies.set(i, new PersistentBTree.Node<>(element(i),
+                    left == -1 ? null : copies.get(left), right == -1 ? null : copies.get(right)));
+        }
+        return copies.get(0);
+    }
+
+    //recorre las posiciones del arreglo sin copiar la estructura
+    @Override
+    public void walk(TreeVisitor<T> visitor) {
+        WalkNode.walk(view(isEmpty() ? -1 : 0), visitor);
+    }
+
+    private WalkNode<T> view(int i) {
+        return i == -1 ? null : new PositionView(i);
+    }
+
+    private final class PositionView extends WalkNode<T> {
+        private final int position;
+
+        PositionView(int position) {
+            this.position = position;
+        }
+
+        @Override
+        public T getData() {
+            return element(position);
+        }
+
+        @Override
+        WalkNode<T> leftChild() {
+            return view(left(position));
+        }
+
+        @Override
+        WalkNode<T> rightChild() {
+            return view(right(position));
+        }
+
+        //el árbol es completo: la rama izquierda llega siempre al nivel más profundo
+        @Override
+        public int getHeight() {
+            int height = 0;
+            for (int i = left(position); i != -1; i = left(i)) height++;
+            return height;
+        }
+    }
+
+    @Override
+    public String toString() {
+        String result;
+        try {
+            result = "PreOrder: "+preOrder();
+            result+= "\nInOrder: "+inOrder();
+            result+= "\nPostOrder: "+postOrder();
+
+        } catch (TreeException e) {
+            result = "Binary Tree is empty";
+        }
+        return result;
+    }
+}
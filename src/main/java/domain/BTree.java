@@ -1,23 +1,57 @@
 package domain;
 
-public class BTree implements Tree {
-    private BTreeNode root; //se refiere a la raiz del arbol
+public class BTree<T> implements Tree<T> {
+    private static final int WRITE_BUFFER = 8192; //caracteres por escritura en recorridos hacia un destino
+
+    private BTreeNode<T> root; //se refiere a la raiz del arbol
+    private int count; //número de elementos
+    //índice opcional valor -> nodo, para búsquedas en tiempo constante
+    private java.util.Map<T, BTreeNode<T>> index;
+
+    //se resuelve una sola vez al construir el árbol; solo se usa para igualdad
+    private final java.util.Comparator<? super T> comparator;
+
+    //usa el orden natural de los elementos (deben ser Comparable)
+    public BTree() {
+        this(false);
+    }
+
+    //indexed = true mantiene el índice valor -> nodo junto al árbol
+    public BTree(boolean indexed) {
+        this(naturalOrder(), indexed);
+    }
+
+    public BTree(java.util.Comparator<? super T> comparator) {
+        this(comparator, false);
+    }
+
+    //con índice, el comparador debe ser consistente con equals/hashCode
+    public BTree(java.util.Comparator<? super T> comparator, boolean indexed) {
+        this.comparator = java.util.Objects.requireNonNull(comparator);
+        if (indexed) this.index = new java.util.HashMap<>();
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> java.util.Comparator<T> naturalOrder() {
+        return (java.util.Comparator<T>) java.util.Comparator.naturalOrder();
+    }
+
+    public boolean isIndexed() {
+        return index != null;
+    }
 
     @Override
     public int size() throws TreeException {
         if(isEmpty())
             throw new TreeException("Binary Tree is empty");
-        return size(root);
-    }
-
-    private int size(BTreeNode node){
-        if(node==null) return 0;
-        else return 1 + size(node.left) + size(node.right);
+        return count;
     }
 
     @Override
     public void clear() {
         root = null;
+        count = 0;
+        if (index != null) index.clear();
     }
 
     @Override
@@ -26,57 +60,206 @@ public class BTree implements Tree {
     }
 
     @Override
-    public boolean contains(Object element) throws TreeException {
+    public boolean contains(T element) throws TreeException {
         if(isEmpty())
             throw new TreeException("Binary Tree is empty");
-        return binarySearch(root, element);
+        return findNode(element) != null;
+    }
+
+    //búsqueda en preorden con pila explícita (o en el índice, si existe)
+    private BTreeNode<T> findNode(T element) {
+        if (index != null) return index.get(element);
+        for (BTreeIterator<T> nodes = nodes(root, BTreeIterator.Order.PRE_ORDER); nodes.hasNext(); ) {
+            BTreeNode<T> node = nodes.nextNode();
+            if (comparator.compare(node.data, element) == 0) return node;
+        }
+        return null;
     }
 
-    private boolean binarySearch(BTreeNode node, Object element){
-        if(node==null) return false;
-        else if(util.Utility.compare(node.data, element)==0) return true;
-        return binarySearch(node.left, element) || binarySearch(node.right, element);
+    private BTreeIterator<T> nodes(BTreeNode<T> node, BTreeIterator.Order order) {
+        return new BTreeIterator<>(node, order);
     }
 
     @Override
-    public void add(Object element) {
+    public void add(T element) {
         // Verificar si el elemento ya existe para evitar duplicados
-        try {
-            if (!isEmpty() && contains(element)) {
-                return; // No agregar duplicados
-            }
-        } catch (TreeException e) {
-            // Si hay error verificando, continuar con la inserción
+        if (!isEmpty() && findNode(element) != null) {
+            return; // No agregar duplicados
         }
 
-        this.root = addBalanced(root, element, "root");
+        BTreeNode<T> newNode;
+        if (root == null) {
+            newNode = root = new BTreeNode<>(element, 0L, 0);
+        } else {
+            newNode = addBalanced(element);
+        }
+        if (index != null) index.put(element, newNode);
+        count++;
     }
 
-    // Nuevo algoritmo de inserción más balanceado y correcto
-    private BTreeNode addBalanced(BTreeNode node, Object element, String path) {
-        if (node == null) {
-            return new BTreeNode(element, path);
+    // CARGA MASIVA
+
+    //agrega todos los elementos (se ignoran los repetidos). Si el árbol está vacío se
+    //construye de una vez, en tiempo lineal, con la misma forma que dejarían las llamadas
+    //a add(); los elementos quedan en preorden en el orden en que se recibieron
+    public void addAll(java.util.Collection<? extends T> elements) {
+        if (!isEmpty()) {
+            for (T element : elements) add(element);
+            return;
+        }
+        java.util.Set<T> seen = comparator == java.util.Comparator.naturalOrder()
+                ? new java.util.HashSet<>(elements.size() * 4 / 3 + 1)
+                : new java.util.TreeSet<>(comparator);
+        java.util.List<T> distinct = new java.util.ArrayList<>(elements.size());
+        for (T element : elements) {
+            if (seen.add(element)) distinct.add(element);
         }
+        build(distinct.size(), distinct::get);
+    }
 
-        // Inserción balanceada: comparar alturas de subárboles
-        int leftHeight = getSubtreeHeight(node.left);
-        int rightHeight = getSubtreeHeight(node.right);
+    public static <T> BTree<T> buildFrom(java.util.Collection<? extends T> elements, boolean indexed) {
+        BTree<T> tree = new BTree<>(indexed);
+        tree.addAll(elements);
+        return tree;
+    }
 
-        if (leftHeight <= rightHeight) {
-            // Insertar en subárbol izquierdo si es menor o igual
-            node.left = addBalanced(node.left, element, path + "/left");
-        } else {
-            // Insertar en subárbol derecho si el izquierdo es mayor
-            node.right = addBalanced(node.right, element, path + "/right");
+    //las llaves se ordenan para quitar repetidos, así quedan en preorden ascendente
+    public static BTree<Integer> buildFrom(int[] keys, boolean indexed) {
+        int[] sorted = keys.clone();
+        java.util.Arrays.sort(sorted);
+        int distinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) sorted[distinct++] = sorted[i];
+        }
+        BTree<Integer> tree = new BTree<>(indexed);
+        tree.build(distinct, i -> sorted[i]);
+        return tree;
+    }
+
+    //MIN_SIZE[k + 1] = menor número de nodos con el que add() llega a altura k
+    //(1, 2, 4, 7, 12, 20, ...: MIN_SIZE[k + 1] = MIN_SIZE[k] + MIN_SIZE[k - 1] + 1)
+    private static final int[] MIN_SIZE = minSizes();
+
+    private static int[] minSizes() {
+        int[] sizes = new int[64];
+        sizes[0] = 0;
+        sizes[1] = 1;
+        int k = 2;
+        for (; sizes[k - 1] < Integer.MAX_VALUE / 2; k++) sizes[k] = sizes[k - 1] + sizes[k - 2] + 1;
+        sizes[k] = Integer.MAX_VALUE;
+        return java.util.Arrays.copyOf(sizes, k + 1);
+    }
+
+    //altura del árbol de n nodos que deja add()
+    private static int shapeHeight(int n) {
+        int k = 0;
+        while (MIN_SIZE[k + 1] <= n) k++;
+        return k - 1;
+    }
+
+    //tamaño del subárbol izquierdo en el árbol de n nodos que deja add(): la
+    //inserción llena la izquierda hasta que supera en altura a la derecha y luego
+    //la derecha hasta igualarla, así que n cae en una de esas dos fases
+    private static int leftShapeSize(int n) {
+        int k = 0; //MIN_SIZE[k] es el tamaño del árbol mínimo de altura k - 1
+        while (1 + 2 * (long) MIN_SIZE[k + 1] <= n) k++;
+        if (n <= 1 + (long) MIN_SIZE[k + 1] + MIN_SIZE[k]) return n - 1 - MIN_SIZE[k];
+        return MIN_SIZE[k + 1];
+    }
+
+    //construye en preorden el árbol de n nodos con la forma de add(); cada nodo recibe
+    //su posición, nivel, altura y tamaño al crearse. La pila guarda a lo sumo un
+    //subárbol derecho pendiente por nivel
+    private void build(int n, java.util.function.IntFunction<? extends T> valueAt) {
+        clear();
+        if (n == 0) return;
+        if (index != null) index = new java.util.HashMap<>(n * 4 / 3 + 1);
+
+        //subárboles pendientes: el padre y el tamaño (negativo si es el hijo derecho)
+        int depth = shapeHeight(n) + 2;
+        //no existen arreglos genéricos; el arreglo nunca sale de este método
+        @SuppressWarnings("unchecked")
+        BTreeNode<T>[] parents = (BTreeNode<T>[]) new BTreeNode[depth];
+        int[] sizes = new int[depth];
+        int top = 0;
+        parents[top] = null;
+        sizes[top++] = n;
+
+        for (int next = 0; top > 0; next++) {
+            BTreeNode<T> parent = parents[--top];
+            int size = sizes[top];
+            T value = valueAt.apply(next);
+
+            BTreeNode<T> node;
+            if (parent == null) {
+                node = root = new BTreeNode<>(value, 0L, 0);
+            } else if (size < 0) {
+                size = -size;
+                node = parent.right = new BTreeNode<>(value,
+                        BTreeNode.rightPosition(parent.position, parent.level), parent.level + 1);
+            } else {
+                node = parent.left = new BTreeNode<>(value, parent.position, parent.level + 1);
+            }
+            node.parent = parent;
+            node.size = size;
+            node.height = shapeHeight(size);
+            if (index != null) index.put(value, node);
+
+            int left = leftShapeSize(size);
+            int right = size - 1 - left;
+            if (right > 0) {
+                parents[top] = node;
+                sizes[top++] = -right;
+            }
+            if (left > 0) {
+                parents[top] = node;
+                sizes[top++] = left;
+            }
+        }
+        count = n;
+    }
+
+    // Inserción balanceada: se baja por el subárbol de menor altura hasta un lugar libre
+    // y luego se actualizan las alturas del camino recorrido, subiendo por los padres
+    private BTreeNode<T> addBalanced(T element) {
+        BTreeNode<T> node = root;
+        BTreeNode<T> newNode = null;
+
+        while (newNode == null) {
+            long position = node.position;
+            int level = node.level;
+            if (getSubtreeHeight(node.left) <= getSubtreeHeight(node.right)) {
+                // Insertar en subárbol izquierdo si es menor o igual
+                if (node.left == null) newNode = node.left = new BTreeNode<>(element, position, level + 1);
+                else node = node.left;
+            } else {
+                // Insertar en subárbol derecho si el izquierdo es mayor
+                if (node.right == null) newNode = node.right = new BTreeNode<>(element,
+                        BTreeNode.rightPosition(position, level), level + 1);
+                else node = node.right;
+            }
         }
 
-        return node;
+        newNode.parent = node;
+        updateHeightsUpFrom(node);
+        return newNode;
     }
 
-    // Método auxiliar para calcular altura de subárbol
-    private int getSubtreeHeight(BTreeNode node) {
+    // Método auxiliar para obtener la altura de un subárbol (guardada en el nodo)
+    private int getSubtreeHeight(BTreeNode<T> node) {
         if (node == null) return -1;
-        return Math.max(getSubtreeHeight(node.left), getSubtreeHeight(node.right)) + 1;
+        return node.height;
+    }
+
+    // Recalcula la altura y el tamaño guardados del nodo a partir de los de sus hijos
+    private void updateHeight(BTreeNode<T> node) {
+        node.height = Math.max(getSubtreeHeight(node.left), getSubtreeHeight(node.right)) + 1;
+        node.size = (node.left == null ? 0 : node.left.size) + (node.right == null ? 0 : node.right.size) + 1;
+    }
+
+    // Actualiza las alturas desde el nodo hasta la raíz, siguiendo los padres
+    private void updateHeightsUpFrom(BTreeNode<T> node) {
+        for (; node != null; node = node.parent) updateHeight(node);
     }
 
     // Método para debuggear la estructura del árbol
@@ -86,24 +269,31 @@ public class BTree implements Tree {
             System.out.println("Árbol vacío");
             return;
         }
-        printTreeStructure(root, "", true);
-    }
 
-    private void printTreeStructure(BTreeNode node, String prefix, boolean isLast) {
-        if (node != null) {
-            System.out.println(prefix + (isLast ? "└── " : "├── ") + node.data + " (" + node.path + ")");
-
-            // Verificar referencias
-            boolean hasLeft = node.left != null;
-            boolean hasRight = node.right != null;
-
-            if (hasLeft || hasRight) {
-                if (hasLeft) {
-                    printTreeStructure(node.left, prefix + (isLast ? "    " : "│   "), !hasRight);
-                }
-                if (hasRight) {
-                    printTreeStructure(node.right, prefix + (isLast ? "    " : "│   "), true);
-                }
+        // pilas paralelas: nodo, prefijo y si es el último hijo de su padre
+        java.util.ArrayDeque<BTreeNode<T>> nodes = new java.util.ArrayDeque<>();
+        java.util.ArrayDeque<String> prefixes = new java.util.ArrayDeque<>();
+        java.util.ArrayDeque<Boolean> lasts = new java.util.ArrayDeque<>();
+        nodes.push(root);
+        prefixes.push("");
+        lasts.push(true);
+
+        while (!nodes.isEmpty()) {
+            BTreeNode<T> node = nodes.pop();
+            String prefix = prefixes.pop();
+            boolean isLast = lasts.pop();
+            System.out.println(prefix + (isLast ? "└── " : "├── ") + node.data + " (" + node.getPath() + ")");
+
+            String childPrefix = prefix + (isLast ? "    " : "│   ");
+            if (node.right != null) {
+                nodes.push(node.right);
+                prefixes.push(childPrefix);
+                lasts.push(true);
+            }
+            if (node.left != null) {
+                nodes.push(node.left);
+                prefixes.push(childPrefix);
+                lasts.push(node.right == null);
             }
         }
     }
@@ -112,137 +302,249 @@ public class BTree implements Tree {
     public boolean validateStructure() {
         if (isEmpty()) return true;
 
-        java.util.Set<BTreeNode> visited = new java.util.HashSet<>();
-        java.util.Set<Object> values = new java.util.HashSet<>();
-
-        return validateStructure(root, visited, values, null);
-    }
-
-    private boolean validateStructure(BTreeNode node, java.util.Set<BTreeNode> visited,
-                                      java.util.Set<Object> values, BTreeNode parent) {
-        if (node == null) return true;
+        java.util.Set<BTreeNode<T>> visited = new java.util.HashSet<>();
+        java.util.Set<T> values = new java.util.HashSet<>();
+        java.util.ArrayDeque<BTreeNode<T>> pending = new java.util.ArrayDeque<>();
 
-        // Verificar si ya visitamos este nodo (indica ciclo)
-        if (visited.contains(node)) {
-            System.err.println("ERROR: Ciclo detectado en nodo " + node.data);
+        if (root.level != 0 || root.position != 0L || root.parent != null) {
+            System.err.println("ERROR: Posición inconsistente en la raíz " + root.data);
             return false;
         }
+        pending.push(root);
 
-        // Verificar si ya existe este valor (indica duplicado)
-        if (values.contains(node.data)) {
-            System.err.println("ERROR: Valor duplicado detectado: " + node.data);
-            return false;
-        }
+        while (!pending.isEmpty()) {
+            BTreeNode<T> node = pending.pop();
+
+            // Verificar si ya visitamos este nodo (indica ciclo)
+            if (visited.contains(node)) {
+                System.err.println("ERROR: Ciclo detectado en nodo " + node.data);
+                return false;
+            }
+
+            // Verificar si ya existe este valor (indica duplicado)
+            if (values.contains(node.data)) {
+                System.err.println("ERROR: Valor duplicado detectado: " + node.data);
+                return false;
+            }
+
+            // Verificar que el índice apunte a este nodo
+            if (index != null && index.get(node.data) != node) {
+                System.err.println("ERROR: Índice inconsistente para el valor " + node.data);
+                return false;
+            }
 
-        visited.add(node);
-        values.add(node.data);
+            // Verificar que nivel y posición de los hijos correspondan a su lugar real
+            if (node.left != null && (node.left.level != node.level + 1 || node.left.position != node.position)) {
+                System.err.println("ERROR: Posición inconsistente en nodo " + node.left.data);
+                return false;
+            }
+            if (node.right != null && (node.right.level != node.level + 1
+                    || node.right.position != BTreeNode.rightPosition(node.position, node.level))) {
+                System.err.println("ERROR: Posición inconsistente en nodo " + node.right.data);
+                return false;
+            }
+
+            // Verificar que los hijos apunten a este nodo como padre
+            if ((node.left != null && node.left.parent != node) || (node.right != null && node.right.parent != node)) {
+                System.err.println("ERROR: Padre inconsistente bajo el nodo " + node.data);
+                return false;
+            }
+
+            // Verificar el tamaño guardado del subárbol
+            if (node.size != (node.left == null ? 0 : node.left.size) + (node.right == null ? 0 : node.right.size) + 1) {
+                System.err.println("ERROR: Tamaño inconsistente en nodo " + node.data);
+                return false;
+            }
 
-        // Validar recursivamente los hijos
-        return validateStructure(node.left, visited, values, node) &&
-                validateStructure(node.right, visited, values, node);
+            // Verificar la altura guardada del subárbol
+            if (node.height != Math.max(getSubtreeHeight(node.left), getSubtreeHeight(node.right)) + 1) {
+                System.err.println("ERROR: Altura inconsistente en nodo " + node.data);
+                return false;
+            }
+
+            visited.add(node);
+            values.add(node.data);
+
+            if (node.right != null) pending.push(node.right);
+            if (node.left != null) pending.push(node.left);
+        }
+
+        return visited.size() == count && (index == null || index.size() == count);
     }
 
     @Override
-    public void remove(Object element) throws TreeException {
+    public void remove(T element) throws TreeException {
         if(isEmpty())
             throw new TreeException("Binary Tree is empty");
-        root = remove(root,element, new boolean[]{false});
-    }
-
-    private BTreeNode remove(BTreeNode node, Object element, boolean[] deleted) throws TreeException{
-        if(node!=null){
-            if(util.Utility.compare(node.data, element)==0){
-                deleted[0] = true;
-
-                //caso 1. es un nodo si hijos, es una hoja
-                if(node.left==null && node.right==null) return null;
-                    //caso 2-a. el nodo solo tien un hijo, el hijo izq
-                else if (node.left!=null&&node.right==null) {
-                    node.left = newPath(node.left, node.path);
-                    return node.left;
-                } //caso 2-b. el nodo solo tien un hijo, el hijo der
-                else if (node.left==null&&node.right!=null) {
-                    node.right = newPath(node.right, node.path);
-                    return node.right;
-                }
-                //caso 3. el nodo tiene dos hijos
-                else{
-                    Object value = getLeaf(node.right);
-                    node.data = value;
-                    node.right = removeLeaf(node.right, value, new boolean[]{false});
-                }
+
+        //con índice se llega directo al nodo; el resto del borrado sube por los padres
+        BTreeNode<T> node = findNode(element);
+        if (node == null) return;
+        BTreeNode<T> parent = node.parent;
+        if (index != null) index.remove(node.data);
+        count--;
+
+        //caso 1. es un nodo si hijos, es una hoja
+        if(node.left==null && node.right==null) replaceChild(parent, node, null);
+            //caso 2-a. el nodo solo tien un hijo, el hijo izq
+        else if (node.left!=null&&node.right==null) {
+            replaceChild(parent, node, newPath(node.left, node.position, node.level));
+        } //caso 2-b. el nodo solo tien un hijo, el hijo der
+        else if (node.left==null&&node.right!=null) {
+            replaceChild(parent, node, newPath(node.right, node.position, node.level));
+        }
+        //caso 3. el nodo tiene dos hijos: se reemplaza por una hoja del subárbol derecho,
+        //que se desengancha por referencia
+        else{
+            BTreeNode<T> leaf = node.right;
+            while (leaf.left != null || leaf.right != null) {
+                leaf = leaf.left != null ? leaf.left : leaf.right;
             }
-            if(!deleted[0]) node.left = remove(node.left, element, deleted);
-            if(!deleted[0]) node.right = remove(node.right, element, deleted);
+            node.data = leaf.data;
+            if (index != null) index.put(leaf.data, node);
+            parent = leaf.parent;
+            replaceChild(parent, leaf, null);
         }
-        return node;
+
+        updateHeightsUpFrom(parent);
     }
 
-    private BTreeNode newPath(BTreeNode node,String label){
-        if(node!=null){
-            node.path = label;
-            node.left = newPath(node.left,label+"/left");
-            node.right = newPath(node.right,label+"/right");
-        }
-        return node;
+    //cambia el hijo oldChild de parent (o la raíz, si parent es null) por newChild
+    private void replaceChild(BTreeNode<T> parent, BTreeNode<T> oldChild, BTreeNode<T> newChild) {
+        if (parent == null) root = newChild;
+        else if (parent.left == oldChild) parent.left = newChild;
+        else parent.right = newChild;
+        if (newChild != null) newChild.parent = parent;
+        oldChild.parent = null;
     }
 
-    private Object getLeaf(BTreeNode node){
-        Object aux;
-        if(node==null) return null;
-        else if(node.left==null&&node.right==null) return node.data;
-        else{
-            aux = getLeaf(node.left);
-            if(aux==null) aux = getLeaf(node.right);
+    //reubica un subárbol promovido: solo aritmética sobre la posición, sin crear Strings
+    private BTreeNode<T> newPath(BTreeNode<T> subtree, long position, int level){
+        subtree.position = position;
+        subtree.level = level;
+        for (BTreeIterator<T> nodes = nodes(subtree, BTreeIterator.Order.PRE_ORDER); nodes.hasNext(); ) {
+            BTreeNode<T> node = nodes.nextNode();
+            if (node.left != null) {
+                node.left.parent = node;
+                node.left.position = node.position;
+                node.left.level = node.level + 1;
+            }
+            if (node.right != null) {
+                node.right.parent = node;
+                node.right.position = BTreeNode.rightPosition(node.position, node.level);
+                node.right.level = node.level + 1;
+            }
         }
-        return aux;
-    }
+        return subtree;
+    }
+
+    // BORRADO MASIVO
+
+    //elimina los elementos de la colección; devuelve true si el árbol cambió.
+    //Como Collection.removeAll, la colección puede tener objetos de otro tipo: con el
+    //orden natural nunca coinciden y con un comparador propio pueden lanzar ClassCastException
+    @SuppressWarnings("unchecked") //el comparador solo recibe los objetos de la colección
+    public boolean removeAll(java.util.Collection<?> elements) {
+        if (isEmpty() || elements.isEmpty()) return false;
+        java.util.Set<Object> doomed = comparator == java.util.Comparator.naturalOrder()
+                ? new java.util.HashSet<>(elements.size() * 4 / 3 + 1)
+                : new java.util.TreeSet<>((java.util.Comparator<Object>) comparator);
+        doomed.addAll(elements);
+        return removeIf(doomed::contains);
+    }
+
+    //elimina en un solo recorrido en postorden los elementos que cumplen la condición.
+    //Cada nodo se suprime con los mismos casos 1, 2 y 3 de remove() cuando sus
+    //subárboles ya están resueltos, así que el resultado es el mismo que llamar a
+    //remove() para esos elementos en postorden. Alturas y tamaños se corrigen al
+    //subir y las posiciones se reescriben una sola vez al final
+    public boolean removeIf(java.util.function.Predicate<? super T> condition) {
+        java.util.ArrayDeque<BTreeNode<T>> stack = new java.util.ArrayDeque<>();
+        BTreeNode<T> node = root;
+        BTreeNode<T> lastVisited = null;
+        int removed = 0;
+        boolean promoted = false;
+
+        while (node != null || !stack.isEmpty()) {
+            if (node != null) {
+                stack.push(node);
+                node = node.left;
+                continue;
+            }
+            BTreeNode<T> top = stack.peek();
+            if (top.right != null && lastVisited != top.right) {
+                node = top.right;
+                continue;
+            }
+            stack.pop();
+            lastVisited = top;
+            if (!condition.test(top.data)) {
+                updateHeight(top);
+                continue;
+            }
 
-    private BTreeNode removeLeaf(BTreeNode node, Object value, boolean[] deleted){
-        if(node==null) return null;
-        else if(node.left==null&&node.right==null&&util.Utility.compare(node.data, value)==0) {
-            deleted[0] = true;
-            return null;
-        }else{
-            node.left = removeLeaf(node.left, value, deleted);
-            if(!deleted[0]) node.right = removeLeaf(node.right, value, deleted);
+            removed++;
+            if (index != null) index.remove(top.data);
+            //caso 1. es una hoja
+            if (top.left == null && top.right == null) {
+                replaceChild(stack.peek(), top, null);
+                lastVisited = null;
+            }
+            //caso 2. tiene un solo hijo: se promueve (sus posiciones se corrigen al final)
+            else if (top.left == null || top.right == null) {
+                lastVisited = top.left != null ? top.left : top.right;
+                replaceChild(stack.peek(), top, lastVisited);
+                promoted = true;
+            }
+            //caso 3. tiene dos hijos: toma el valor de una hoja del subárbol derecho
+            else {
+                BTreeNode<T> leaf = top.right;
+                while (leaf.left != null || leaf.right != null) {
+                    leaf = leaf.left != null ? leaf.left : leaf.right;
+                }
+                top.data = leaf.data;
+                if (index != null) index.put(leaf.data, top);
+                BTreeNode<T> leafParent = leaf.parent;
+                replaceChild(leafParent, leaf, null);
+                //solo se corrige el camino de la hoja; los ancestros de top se corrigen al subir
+                for (BTreeNode<T> fix = leafParent; fix != top; fix = fix.parent) updateHeight(fix);
+                updateHeight(top);
+            }
         }
-        return node;
+
+        if (removed == 0) return false;
+        count -= removed;
+        if (promoted && root != null) newPath(root, 0L, 0);
+        return true;
     }
 
     @Override
-    public int height(Object element) throws TreeException {
+    public int height(T element) throws TreeException {
         if(isEmpty())
             throw new TreeException("Binary Tree is empty");
-        return height(root, element, 0);
-    }
-
-    private int height(BTreeNode node, Object element, int level){
-        if(node==null) return 0;
-        else if(util.Utility.compare(node.data, element)==0) return level;
-        else return Math.max(height(node.left, element, level+1),
-                    height(node.right, element, level+1));
+        BTreeNode<T> node = findNode(element);
+        return node == null ? 0 : node.level;
     }
 
     @Override
     public int height() throws TreeException {
         if(isEmpty())
             throw new TreeException("Binary Tree is empty");
-        return height(root);
+        return getSubtreeHeight(root);
     }
 
-    private int height(BTreeNode node){
-        if(node==null) return -1;
-        return Math.max(height(node.left), height(node.right)) + 1;
+    @Override
+    public TreeNodeView<T> root() {
+        return root;
     }
 
     @Override
-    public Object min() throws TreeException {
+    public T min() throws TreeException {
         return null;
     }
 
     @Override
-    public Object max() throws TreeException {
+    public T max() throws TreeException {
         return null;
     }
 
@@ -250,65 +552,177 @@ public class BTree implements Tree {
     public String preOrder() throws TreeException {
         if(isEmpty())
             throw new TreeException("Binary Tree is empty");
-        return preOrder(root).trim();
+        StringBuilder result = new StringBuilder();
+        append(preOrderIterator(), result);
+        return result.toString();
     }
 
-    private String preOrder(BTreeNode node){
-        String result="";
-        if(node!=null){
-            result  = node.data + " ";
-            result += preOrder(node.left);
-            result += preOrder(node.right);
-        }
-        return  result;
+    @Override
+    public String inOrder() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        StringBuilder result = new StringBuilder();
+        append(inOrderIterator(), result);
+        return result.toString();
     }
 
     @Override
-    public String inOrder() throws TreeException {
+    public String postOrder() throws TreeException {
         if(isEmpty())
             throw new TreeException("Binary Tree is empty");
-        return inOrder(root).trim();
+        StringBuilder result = new StringBuilder();
+        append(postOrderIterator(), result);
+        return result.toString();
     }
 
-    private String inOrder(BTreeNode node){
-        String result="";
-        if(node!=null){
-            result  = inOrder(node.left);
-            result += node.data+" ";
-            result += inOrder(node.right);
-        }
-        return  result;
+    // RECORRIDOS HACIA UN DESTINO: cada elemento se escribe al visitarlo,
+    // la memoria usada no depende del tamaño del árbol
+
+    @Override
+    public void preOrder(Appendable out) throws TreeException, java.io.IOException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        write(preOrderIterator(), out);
     }
 
     @Override
-    public String postOrder() throws TreeException {
+    public void inOrder(Appendable out) throws TreeException, java.io.IOException {
         if(isEmpty())
             throw new TreeException("Binary Tree is empty");
-        return postOrder(root).trim();
+        write(inOrderIterator(), out);
     }
 
-    private String postOrder(BTreeNode node){
-        String result="";
-        if(node!=null){
-            result  = postOrder(node.left);
-            result += postOrder(node.right);
-            result += node.data+" ";
+    @Override
+    public void postOrder(Appendable out) throws TreeException, java.io.IOException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        write(postOrderIterator(), out);
+    }
+
+    //mismo contenido que toString(), escrito directamente en el destino
+    public void writeTo(Appendable out) throws java.io.IOException {
+        if (isEmpty()) {
+            out.append("Binary Tree is empty");
+            return;
         }
-        return result;
+        out.append("PreOrder: ");
+        write(preOrderIterator(), out);
+        out.append("\nInOrder: ");
+        write(inOrderIterator(), out);
+        out.append("\nPostOrder: ");
+        write(postOrderIterator(), out);
+    }
+
+    //une los elementos separados por un espacio
+    private void append(java.util.Iterator<T> elements, StringBuilder result) {
+        int start = result.length();
+        while (elements.hasNext()) {
+            if (result.length() > start) result.append(' ');
+            result.append(elements.next());
+        }
+    }
+
+    //escribe en bloques de unos WRITE_BUFFER caracteres, para no hacer
+    //una llamada por elemento a destinos sin buffer (por ejemplo un canal)
+    private void write(java.util.Iterator<T> elements, Appendable out) throws java.io.IOException {
+        if (out instanceof StringBuilder) { //ya está en memoria, no hace falta otro buffer
+            append(elements, (StringBuilder) out);
+            return;
+        }
+        StringBuilder buffer = new StringBuilder(WRITE_BUFFER + 64);
+        boolean first = true;
+        while (elements.hasNext()) {
+            if (!first) buffer.append(' ');
+            buffer.append(elements.next());
+            first = false;
+            if (buffer.length() >= WRITE_BUFFER) {
+                out.append(buffer);
+                buffer.setLength(0);
+            }
+        }
+        out.append(buffer);
+    }
+
+    // RECORRIDOS PEREZOSOS: iteradores con pila explícita, permiten detenerse antes del final
+
+    public java.util.Iterator<T> preOrderIterator() {
+        return new BTreeIterator<>(root, BTreeIterator.Order.PRE_ORDER);
+    }
+
+    public java.util.Iterator<T> inOrderIterator() {
+        return new BTreeIterator<>(root, BTreeIterator.Order.IN_ORDER);
+    }
+
+    public java.util.Iterator<T> postOrderIterator() {
+        return new BTreeIterator<>(root, BTreeIterator.Order.POST_ORDER);
+    }
+
+    public java.util.Iterator<T> levelOrderIterator() {
+        return new BTreeIterator<>(root, BTreeIterator.Order.LEVEL_ORDER);
+    }
+
+    //para usar en un for-each: for (T element : tree.inOrderElements())
+    public Iterable<T> preOrderElements() {
+        return this::preOrderIterator;
+    }
+
+    public Iterable<T> inOrderElements() {
+        return this::inOrderIterator;
+    }
+
+    public Iterable<T> postOrderElements() {
+        return this::postOrderIterator;
+    }
+
+    public Iterable<T> levelOrderElements() {
+        return this::levelOrderIterator;
+    }
+
+    //divide el árbol por subárboles; los tamaños guardados en los nodos hacen que
+    //cada parte conozca su número exacto de elementos
+    public java.util.Spliterator<T> spliterator() {
+        return new BTreeSpliterator<>(root);
+    }
+
+    //elementos en preorden
+    public java.util.stream.Stream<T> stream() {
+        return java.util.stream.StreamSupport.stream(spliterator(), false);
+    }
+
+    public java.util.stream.Stream<T> parallelStream() {
+        return java.util.stream.StreamSupport.stream(spliterator(), true);
+    }
+
+    //visitantes: aplican la acción a cada elemento sin crear objetos por elemento
+    public void forEachPreOrder(java.util.function.Consumer<? super T> action) {
+        forEach(preOrderIterator(), action);
+    }
+
+    public void forEachInOrder(java.util.function.Consumer<? super T> action) {
+        forEach(inOrderIterator(), action);
+    }
+
+    public void forEachPostOrder(java.util.function.Consumer<? super T> action) {
+        forEach(postOrderIterator(), action);
+    }
+
+    public void forEachLevelOrder(java.util.function.Consumer<? super T> action) {
+        forEach(levelOrderIterator(), action);
+    }
+
+    private void forEach(java.util.Iterator<T> elements, java.util.function.Consumer<? super T> action) {
+        while (elements.hasNext()) action.accept(elements.next());
     }
 
     @Override
     public String toString() {
-        String result="Binary Tree Content:";
+        StringBuilder result = new StringBuilder();
         try {
-            result = "PreOrder: "+preOrder();
-            result+= "\nInOrder: "+inOrder();
-            result+= "\nPostOrder: "+postOrder();
-
-        } catch (TreeException e) {
-            result = "Binary Tree is empty";
+            writeTo(result);
+        } catch (java.io.IOException e) {
+            //StringBuilder no lanza IOException
         }
-        return result;
+        return result.toString();
     }
 
     // MÉTODOS ADICIONALES REQUERIDOS POR EL LABORATORIO
@@ -316,132 +730,134 @@ public class BTree implements Tree {
     public String printLeaves() throws TreeException {
         if(isEmpty())
             throw new TreeException("Binary Tree is empty");
-        String result = printLeaves(root).trim();
-        return "Binary tree - leaves: " + (result.endsWith(", ") ? result.substring(0, result.length()-2) : result);
-    }
-
-    private String printLeaves(BTreeNode node){
-        if(node == null) return "";
-
-        String result = "";
-        if(node.left == null && node.right == null) {
-            result += node.data + ", ";
+        StringBuilder leaves = new StringBuilder();
+        for (BTreeIterator<T> nodes = nodes(root, BTreeIterator.Order.PRE_ORDER); nodes.hasNext(); ) {
+            BTreeNode<T> node = nodes.nextNode();
+            if(node.left == null && node.right == null) {
+                leaves.append(node.data).append(", ");
+            }
         }
-        result += printLeaves(node.left);
-        result += printLeaves(node.right);
-        return result;
+        String result = leaves.toString().trim();
+        return "Binary tree - leaves: " + (result.endsWith(", ") ? result.substring(0, result.length()-2) : result);
     }
 
     public String printNodes1Child() throws TreeException {
         if(isEmpty())
             throw new TreeException("Binary Tree is empty");
-        return "Binary tree - nodes 1 child\n" + printNodes1Child(root);
-    }
-
-    private String printNodes1Child(BTreeNode node) {
-        if (node == null) return "";
-
-        String result = "";
-        if ((node.left != null && node.right == null) || (node.left == null && node.right != null)) {
-            result += "Node: " + node.data;
-            if (node.left != null) {
-                result += ", left son: " + node.left.data;
-            }
-            if (node.right != null) {
-                result += ", right son: " + node.right.data;
+        StringBuilder result = new StringBuilder("Binary tree - nodes 1 child\n");
+        for (BTreeIterator<T> nodes = nodes(root, BTreeIterator.Order.PRE_ORDER); nodes.hasNext(); ) {
+            BTreeNode<T> node = nodes.nextNode();
+            if ((node.left != null && node.right == null) || (node.left == null && node.right != null)) {
+                result.append("Node: ").append(node.data);
+                if (node.left != null) {
+                    result.append(", left son: ").append(node.left.data);
+                }
+                if (node.right != null) {
+                    result.append(", right son: ").append(node.right.data);
+                }
+                result.append("\n");
             }
-            result += "\n";
         }
-        result += printNodes1Child(node.left);
-        result += printNodes1Child(node.right);
-        return result;
+        return result.toString();
     }
 
     public String printNodes2Children() throws TreeException {
         if(isEmpty())
             throw new TreeException("Binary Tree is empty");
-        return "Binary tree - nodes 2 children\n" + printNodes2Children(root);
-    }
-
-    private String printNodes2Children(BTreeNode node) {
-        if (node == null) return "";
-
-        String result = "";
-        if (node.left != null && node.right != null) {
-            result += "Node: " + node.data + ", left son: " + node.left.data +
-                    ", right son: " + node.right.data + "\n";
+        StringBuilder result = new StringBuilder("Binary tree - nodes 2 children\n");
+        for (BTreeIterator<T> nodes = nodes(root, BTreeIterator.Order.PRE_ORDER); nodes.hasNext(); ) {
+            BTreeNode<T> node = nodes.nextNode();
+            if (node.left != null && node.right != null) {
+                result.append("Node: ").append(node.data).append(", left son: ").append(node.left.data)
+                        .append(", right son: ").append(node.right.data).append("\n");
+            }
         }
-        result += printNodes2Children(node.left);
-        result += printNodes2Children(node.right);
-        return result;
+        return result.toString();
     }
 
     public String printNodesWithChildren() throws TreeException {
         if(isEmpty())
             throw new TreeException("Binary Tree is empty");
-        return "Binary tree - nodes with children\n" + printNodesWithChildren(root);
-    }
-
-    private String printNodesWithChildren(BTreeNode node) {
-        if (node == null) return "";
-
-        String result = "";
-        if (node.left != null || node.right != null) {
-            result += "Node: " + node.data + ", children: ";
-            if (node.left != null && node.right != null) {
-                result += node.left.data + ", " + node.right.data;
-            } else if (node.left != null) {
-                result += "left son: " + node.left.data;
-            } else {
-                result += "right son: " + node.right.data;
+        StringBuilder result = new StringBuilder("Binary tree - nodes with children\n");
+        for (BTreeIterator<T> nodes = nodes(root, BTreeIterator.Order.PRE_ORDER); nodes.hasNext(); ) {
+            BTreeNode<T> node = nodes.nextNode();
+            if (node.left != null || node.right != null) {
+                result.append("Node: ").append(node.data).append(", children: ");
+                if (node.left != null && node.right != null) {
+                    result.append(node.left.data).append(", ").append(node.right.data);
+                } else if (node.left != null) {
+                    result.append("left son: ").append(node.left.data);
+                } else {
+                    result.append("right son: ").append(node.right.data);
+                }
+                result.append("\n");
             }
-            result += "\n";
         }
-        result += printNodesWithChildren(node.left);
-        result += printNodesWithChildren(node.right);
-        return result;
+        return result.toString();
     }
 
-    public String printSubTree(Object element) throws TreeException {
+    public String printSubTree(T element) throws TreeException {
         if(isEmpty())
             throw new TreeException("Binary Tree is empty");
-        if(!contains(element))
+        BTreeNode<T> foundNode = findNode(element);
+        if(foundNode == null)
             throw new TreeException("Element not found in the tree");
 
-        BTreeNode foundNode = findNode(root, element);
-        String subtreeContent = printSubTree(foundNode).trim();
+        StringBuilder subtree = new StringBuilder();
+        for (BTreeIterator<T> nodes = nodes(foundNode, BTreeIterator.Order.PRE_ORDER); nodes.hasNext(); ) {
+            subtree.append(nodes.next()).append(", ");
+        }
+        String subtreeContent = subtree.toString().trim();
         return "Binary tree - subtree: " + (subtreeContent.endsWith(", ") ?
                 subtreeContent.substring(0, subtreeContent.length()-2) : subtreeContent);
     }
 
-    private BTreeNode findNode(BTreeNode node, Object element) {
-        if(node == null) return null;
-        if(util.Utility.compare(node.data, element) == 0) return node;
-
-        BTreeNode leftResult = findNode(node.left, element);
-        if(leftResult != null) return leftResult;
+    //en árboles grandes el conteo se reparte en el pool común de fork/join
+    public int totalLeaves() throws TreeException {
+        return totalLeaves(java.util.concurrent.ForkJoinPool.commonPool());
+    }
 
-        return findNode(node.right, element);
+    public int totalLeaves(java.util.concurrent.ForkJoinPool pool) throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        return BTreeForkJoin.count(pool, root, BTreeForkJoin::isLeaf);
     }
 
-    private String printSubTree(BTreeNode node) {
-        if(node == null) return "";
+    //true si en cada nodo las alturas de sus subárboles difieren en a lo sumo uno
+    public boolean isBalanced() {
+        return isBalanced(java.util.concurrent.ForkJoinPool.commonPool());
+    }
 
-        String result = node.data + ", ";
-        result += printSubTree(node.left);
-        result += printSubTree(node.right);
-        return result;
+    public boolean isBalanced(java.util.concurrent.ForkJoinPool pool) {
+        return BTreeForkJoin.count(pool, root, BTreeForkJoin::isUnbalanced) == 0;
     }
 
-    public int totalLeaves() throws TreeException {
-        if(isEmpty())
-            throw new TreeException("Binary Tree is empty");
-        return totalLeaves(root);
+    //reemplaza la raíz por un árbol ya enlazado y recalcula altura, nivel, posición,
+    //tamaño e índice de cada nodo sin recursión (pensado para pruebas y cargas masivas)
+    void adopt(BTreeNode<T> newRoot) {
+        clear();
+        if (newRoot == null) return;
+        newRoot.parent = null;
+        root = newPath(newRoot, 0L, 0);
+        for (BTreeIterator<T> nodes = nodes(root, BTreeIterator.Order.POST_ORDER); nodes.hasNext(); ) {
+            BTreeNode<T> node = nodes.nextNode();
+            updateHeight(node);
+            if (index != null) index.put(node.data, node);
+            count++;
+        }
     }
 
-    private int totalLeaves(BTreeNode node) {
-        if(node == null) return 0;
-        if(node.left == null && node.right == null) return 1;
-        return totalLeaves(node.left) + totalLeaves(node.right);
+    //instala un árbol ya enlazado cuyos nodos traen padre, nivel, posición, altura y
+    //tamaño correctos (lo usa BTreeSnapshot al cargar); solo falta llenar el índice
+    void install(BTreeNode<T> newRoot, int n) {
+        clear();
+        root = newRoot;
+        count = n;
+        if (index == null || newRoot == null) return;
+        index = new java.util.HashMap<>(n * 4 / 3 + 1);
+        for (BTreeIterator<T> nodes = nodes(root, BTreeIterator.Order.PRE_ORDER); nodes.hasNext(); ) {
+            BTreeNode<T> node = nodes.nextNode();
+            index.put(node.data, node);
+        }
     }
-}
\ No newline at end of file
+}
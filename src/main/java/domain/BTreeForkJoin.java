@@ -0,0 +1,80 @@
+package domain;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+
+//Cálculos sobre todo el árbol con fork/join: el trabajo se divide en las raíces de
+//los subárboles hasta una profundidad de corte y debajo de ella se recorre
+//secuencialmente con pila explícita. Los árboles (o subárboles) con menos de
+//SEQUENTIAL_THRESHOLD nodos nunca se dividen, así los árboles pequeños no pagan
+//el costo de crear tareas.
+final class BTreeForkJoin {
+    static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+
+    private BTreeForkJoin() {
+    }
+
+    //número de nodos del subárbol que cumplen la condición
+    static <T> int count(ForkJoinPool pool, BTreeNode<T> root, Predicate<BTreeNode<T>> condition) {
+        if (root == null) return 0;
+        if (root.size < SEQUENTIAL_THRESHOLD) return countSequential(root, condition);
+        return pool.invoke(new CountTask<>(root, 0, cutoffDepth(pool), condition));
+    }
+
+    static boolean isLeaf(BTreeNode<?> node) {
+        return node.left == null && node.right == null;
+    }
+
+    //las alturas de los hijos difieren en más de uno (según las alturas guardadas)
+    static boolean isUnbalanced(BTreeNode<?> node) {
+        int leftHeight = node.left == null ? -1 : node.left.height;
+        int rightHeight = node.right == null ? -1 : node.right.height;
+        return Math.abs(leftHeight - rightHeight) > 1;
+    }
+
+    //unas cuatro tareas por hilo del pool: profundidad = log2(paralelismo) + 2
+    private static int cutoffDepth(ForkJoinPool pool) {
+        return 32 - Integer.numberOfLeadingZeros(Math.max(1, pool.getParallelism() - 1)) + 2;
+    }
+
+    private static <T> int countSequential(BTreeNode<T> root, Predicate<BTreeNode<T>> condition) {
+        int result = 0;
+        for (BTreeIterator<T> nodes = new BTreeIterator<>(root, BTreeIterator.Order.PRE_ORDER); nodes.hasNext(); ) {
+            if (condition.test(nodes.nextNode())) result++;
+        }
+        return result;
+    }
+
+    private static final class CountTask<T> extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final BTreeNode<T> node;
+        private final int depth, cutoffDepth;
+        private final Predicate<BTreeNode<T>> condition;
+
+        CountTask(BTreeNode<T> node, int depth, int cutoffDepth, Predicate<BTreeNode<T>> condition) {
+            this.node = node;
+            this.depth = depth;
+            this.cutoffDepth = cutoffDepth;
+            this.condition = condition;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (depth >= cutoffDepth || node.size < SEQUENTIAL_THRESHOLD) return countSequential(node, condition);
+
+            int result = condition.test(node) ? 1 : 0;
+            CountTask<T> left = null;
+            if (node.left != null) {
+                left = new CountTask<>(node.left, depth + 1, cutoffDepth, condition);
+                left.fork();
+            }
+            if (node.right != null) {
+                result += new CountTask<>(node.right, depth + 1, cutoffDepth, condition).compute();
+            }
+            if (left != null) result += left.join();
+            return result;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package domain;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+//Iterador perezoso sobre un árbol de BTreeNode: usa una pila (o cola) explícita
+//en lugar de recursión, y solo avanza cuando se pide el siguiente elemento.
+//No debe usarse mientras el árbol se modifica.
+class BTreeIterator<T> implements Iterator<T> {
+
+    enum Order { PRE_ORDER, IN_ORDER, POST_ORDER, LEVEL_ORDER }
+
+    private final Order order;
+    //pila para pre/in/post orden, cola para el recorrido por niveles
+    private final ArrayDeque<BTreeNode<T>> pending = new ArrayDeque<>();
+
+    BTreeIterator(BTreeNode<T> root, Order order) {
+        this.order = order;
+        if (root == null) return;
+        switch (order) {
+            case PRE_ORDER:
+            case LEVEL_ORDER:
+                pending.push(root);
+                break;
+            case IN_ORDER:
+                pushLeftPath(root);
+                break;
+            case POST_ORDER:
+                pushFirstPostOrderPath(root);
+                break;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !pending.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        return nextNode().data;
+    }
+
+    //igual que next(), pero devuelve el nodo (para los recorridos internos de BTree)
+    BTreeNode<T> nextNode() {
+        if (pending.isEmpty()) throw new NoSuchElementException();
+        BTreeNode<T> node;
+        switch (order) {
+            case PRE_ORDER:
+                node = pending.pop();
+                if (node.right != null) pending.push(node.right);
+                if (node.left != null) pending.push(node.left);
+                return node;
+            case IN_ORDER:
+                node = pending.pop();
+                if (node.right != null) pushLeftPath(node.right);
+                return node;
+            case POST_ORDER:
+                node = pending.pop();
+                //si el nodo era el hijo izq, falta recorrer el subárbol der del padre
+                BTreeNode<T> parent = pending.peek();
+                if (parent != null && parent.left == node && parent.right != null) {
+                    pushFirstPostOrderPath(parent.right);
+                }
+                return node;
+            default: //LEVEL_ORDER
+                node = pending.removeLast();
+                if (node.left != null) pending.push(node.left);
+                if (node.right != null) pending.push(node.right);
+                return node;
+        }
+    }
+
+    //apila el nodo y sus descendientes izquierdos
+    private void pushLeftPath(BTreeNode<T> node) {
+        while (node != null) {
+            pending.push(node);
+            node = node.left;
+        }
+    }
+
+    //apila el camino hasta la primera hoja en postorden (izquierda si existe, si no derecha)
+    private void pushFirstPostOrderPath(BTreeNode<T> node) {
+        while (node != null) {
+            pending.push(node);
+            node = node.left != null ? node.left : node.right;
+        }
+    }
+}
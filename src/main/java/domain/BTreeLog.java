@@ -0,0 +1,283 @@
+package domain;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+//Bitácora de operaciones (write-ahead log) para árboles de llaves int.
+//Cada registro va precedido por su largo y un CRC32:
+//  largo (int) | crc32 del contenido (int) | operación (byte) | llave (int)
+//append() solo copia el registro a un búfer en memoria y devuelve su número de
+//secuencia; un hilo de commit escribe en un solo write() todo lo pendiente (hasta
+//maxBatch registros) y, según la política, hace un único fsync por grupo. await()
+//espera a que el registro sea durable, así varios escritores comparten el fsync.
+//Al leer (replay) se descarta la cola incompleta o dañada que deja una caída.
+//El primer registro de la bitácora es siempre EPOCH con el número de época: reset()
+//vacía la bitácora y empieza una época nueva, así un snapshot que anota la época
+//que incluye sabe si la bitácora que encuentra al abrir ya está aplicada en él.
+public final class BTreeLog implements AutoCloseable {
+    static final byte ADD = 1, REMOVE = 2, CLEAR = 3, EPOCH = 4;
+    private static final int PAYLOAD_BYTES = 5;
+    private static final int RECORD_BYTES = 8 + PAYLOAD_BYTES;
+
+    //cuándo se fuerza la bitácora al disco
+    public enum Sync {
+        EVERY_COMMIT, //fsync por cada grupo: un registro confirmado sobrevive a una caída del sistema
+        NONE          //solo write(): sobrevive a la caída del proceso, no a la del sistema
+    }
+
+    private final Path file;
+    private final FileChannel channel;
+    private final Sync sync;
+    private final int maxBatch;
+    private final ByteBuffer batch; //registros de un grupo, listos para escribir
+    private final java.util.zip.CRC32 crc = new java.util.zip.CRC32();
+    private final Thread committer;
+
+    //estado compartido, protegido por el monitor this
+    private ByteBuffer pending;
+    private long appended, durable; //registros agregados y registros ya escritos
+    private long commits; //grupos escritos
+    private long position; //fin de la bitácora en el archivo
+    private int epoch;
+    private IOException failure;
+    private boolean closed;
+
+    //abre la bitácora para agregar al final de los registros válidos (lo demás se trunca);
+    //una bitácora vacía empieza en la época 1
+    public BTreeLog(Path file, Sync sync, int maxBatch) throws IOException {
+        if (maxBatch < 1) throw new IllegalArgumentException("maxBatch must be positive: " + maxBatch);
+        this.sync = java.util.Objects.requireNonNull(sync);
+        this.maxBatch = maxBatch;
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        int[] first = new int[1];
+        this.position = scan(channel, (operation, key) -> {
+            if (operation == EPOCH) first[0] = key;
+        });
+        channel.truncate(position);
+        if (position == 0) startEpoch(1);
+        else this.epoch = first[0];
+        this.batch = ByteBuffer.allocateDirect(maxBatch * RECORD_BYTES);
+        this.pending = ByteBuffer.allocate(Math.min(maxBatch, 1024) * RECORD_BYTES);
+        this.committer = new Thread(this::commitLoop, "btree-log-commit");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    // ---------------------------------------------- Escritura
+
+    //agrega un registro y devuelve su número de secuencia (empieza en 1)
+    synchronized long append(byte operation, int key) throws IOException {
+        if (failure != null) throw new IOException("Log write failed", failure);
+        if (closed) throw new IOException("Log is closed");
+        if (pending.remaining() < RECORD_BYTES) {
+            ByteBuffer larger = ByteBuffer.allocate(pending.capacity() * 2);
+            pending.flip();
+            pending = larger.put(pending);
+        }
+        encode(pending, operation, key);
+        appended++;
+        notifyAll();
+        return appended;
+    }
+
+    //espera a que el registro con esa secuencia esté escrito (y forzado, según la política)
+    public synchronized void await(long sequence) throws IOException {
+        boolean interrupted = false;
+        while (durable < sequence && failure == null) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        if (durable < sequence) throw new IOException("Log write failed", failure);
+    }
+
+    private void encode(ByteBuffer buffer, byte operation, int key) {
+        crc.reset();
+        crc.update(operation);
+        crc.update(key >>> 24);
+        crc.update(key >>> 16);
+        crc.update(key >>> 8);
+        crc.update(key);
+        buffer.putInt(PAYLOAD_BYTES).putInt((int) crc.getValue()).put(operation).putInt(key);
+    }
+
+    //época de los registros que hay ahora en la bitácora
+    public synchronized int epoch() {
+        return epoch;
+    }
+
+    //número de secuencia del último registro agregado
+    public synchronized long lastSequence() {
+        return appended;
+    }
+
+    //grupos escritos hasta ahora (appended / commits es el tamaño promedio de grupo)
+    public synchronized long commits() {
+        return commits;
+    }
+
+    private void commitLoop() {
+        while (true) {
+            long records;
+            long at;
+            synchronized (this) {
+                while (pending.position() == 0 && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pending.position() == 0) return;
+                records = Math.min(pending.position() / RECORD_BYTES, maxBatch);
+                pending.flip();
+                ByteBuffer group = pending.duplicate();
+                group.limit((int) records * RECORD_BYTES);
+                batch.clear();
+                batch.put(group).flip();
+                pending.position((int) records * RECORD_BYTES);
+                pending.compact();
+                at = position;
+                position += batch.remaining();
+            }
+            try {
+                while (batch.hasRemaining()) at += channel.write(batch, at);
+                if (sync == Sync.EVERY_COMMIT) channel.force(false);
+            } catch (IOException e) {
+                synchronized (this) {
+                    failure = e;
+                    notifyAll();
+                }
+                return;
+            }
+            synchronized (this) {
+                durable += records;
+                commits++;
+                notifyAll();
+            }
+        }
+    }
+
+    //vacía la bitácora y empieza la época dada (tras guardar un snapshot que ya incluye
+    //todos sus registros); quien llama debe impedir nuevos append() mientras tanto
+    public void reset(int newEpoch) throws IOException {
+        await(lastSequence());
+        synchronized (this) {
+            if (failure != null) throw new IOException("Log write failed", failure);
+            startEpoch(newEpoch);
+        }
+    }
+
+    //deja en el archivo solo el registro EPOCH, forzado al disco; si la caída ocurre
+    //antes de escribirlo queda una bitácora vacía, que no tiene nada que reaplicar
+    private void startEpoch(int newEpoch) throws IOException {
+        channel.truncate(0);
+        ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+        encode(record, EPOCH, newEpoch);
+        record.flip();
+        long at = 0;
+        while (record.hasRemaining()) at += channel.write(record, at);
+        FileSync.force(channel, file);
+        position = RECORD_BYTES;
+        epoch = newEpoch;
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+            notifyAll();
+        }
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            if (failure == null) channel.force(false);
+        } finally {
+            channel.close();
+        }
+        if (failure != null) throw new IOException("Log write failed", failure);
+    }
+
+    // ---------------------------------------------- Lectura
+
+    //aplica al árbol los registros válidos de la bitácora, salvo que su época sea una de
+    //las que el árbol ya incluye (hasta covered); devuelve cuántos aplicó
+    public static long replay(Path file, BTree<Integer> tree, int covered) throws IOException {
+        if (!java.nio.file.Files.exists(file)) return 0;
+        long[] applied = new long[1];
+        boolean[] skip = new boolean[1];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            scan(channel, (operation, key) -> {
+                if (operation == EPOCH) skip[0] = key <= covered;
+                else if (!skip[0]) {
+                    applied[0]++;
+                    apply(tree, operation, key);
+                }
+            });
+        }
+        return applied[0];
+    }
+
+    //aplica una operación de la bitácora; un REMOVE sobre el árbol vacío no hace nada
+    static void apply(BTree<Integer> tree, byte operation, int key) {
+        try {
+            if (operation == ADD) tree.add(key);
+            else if (operation == REMOVE) {
+                if (!tree.isEmpty()) tree.remove(key);
+            } else tree.clear();
+        } catch (TreeException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private interface RecordSink {
+        void accept(byte operation, int key);
+    }
+
+    //recorre los registros válidos y devuelve dónde termina el último; el primero debe
+    //ser EPOCH y los demás no
+    private static long scan(FileChannel channel, RecordSink sink) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+        java.util.zip.CRC32 crc = new java.util.zip.CRC32();
+        long valid = 0;
+        long read = 0;
+        while (true) {
+            int n = channel.read(buffer, read);
+            if (n > 0) read += n;
+            buffer.flip();
+            while (buffer.remaining() >= 8) {
+                int length = buffer.getInt(buffer.position());
+                if (length != PAYLOAD_BYTES) return valid;
+                if (buffer.remaining() < 8 + length) break;
+                buffer.getInt();
+                int checksum = buffer.getInt();
+                byte operation = buffer.get();
+                int key = buffer.getInt();
+                crc.reset();
+                crc.update(operation);
+                crc.update(key >>> 24);
+                crc.update(key >>> 16);
+                crc.update(key >>> 8);
+                crc.update(key);
+                if ((int) crc.getValue() != checksum || operation < ADD || operation > EPOCH
+                        || (operation == EPOCH) != (valid == 0)) return valid;
+                if (sink != null) sink.accept(operation, key);
+                valid += RECORD_BYTES;
+            }
+            buffer.compact();
+            if (n <= 0) return valid;
+        }
+    }
+}
@@ -1,19 +1,76 @@
 package domain;
 
-public class BTreeNode {
-    public Object data;
-    public BTreeNode left, right;
-    public String path;
+public class BTreeNode<T> implements TreeNodeView<T> {
+    //niveles que caben en la posición empaquetada (un bit por nivel)
+    public static final int MAX_POSITION_LEVEL = Long.SIZE - 1;
 
-    public BTreeNode(Object data) {
+    //los campos son del paquete para que quien recibe la raíz desde root() no pueda
+    //desincronizar la estructura ni los metadatos que mantiene BTree; desde fuera
+    //se leen con getData(), getLeft() y getRight()
+    T data;
+    BTreeNode<T> left, right;
+    //padre del nodo (null en la raíz); lo mantiene BTree para borrar en O(altura)
+    BTreeNode<T> parent;
+    //camino desde la raíz empaquetado en bits: el bit i indica el paso del nivel i+1
+    //(0 = izquierda, 1 = derecha). El texto "root/left/..." se construye en getPath()
+    long position;
+    int height; //altura del subárbol que inicia en este nodo (hoja = 0)
+    int level; //número de ancestros del nodo (raíz = 0)
+    int size = 1; //número de nodos del subárbol que inicia en este nodo
+
+    public BTreeNode(T data) {
         this.data = data;
         this.left = this.right = null;
     }
 
-    public BTreeNode(Object data, String path) {
+    public BTreeNode(T data, long position, int level) {
         this.data = data;
         this.left = this.right = null;
-        this.path= path;
+        this.position = position;
+        this.level = level;
+    }
+
+    //posición del hijo derecho de un nodo con la posición y nivel dados
+    //(el hijo izquierdo conserva la misma posición, su bit queda en 0)
+    public static long rightPosition(long position, int level) {
+        return level < MAX_POSITION_LEVEL ? position | (1L << level) : position;
+    }
+
+    //construye el camino legible, por ejemplo "root/left/right"
+    public String getPath() {
+        StringBuilder path = new StringBuilder("root");
+        for (int i = 0; i < level; i++) {
+            if (i == MAX_POSITION_LEVEL) {
+                path.append("/..."); //los niveles más profundos no caben en la posición
+                break;
+            }
+            path.append((position & (1L << i)) == 0 ? "/left" : "/right");
+        }
+        return path.toString();
+    }
+
+    @Override
+    public T getData() {
+        return data;
     }
 
+    @Override
+    public BTreeNode<T> getLeft() {
+        return left;
+    }
+
+    @Override
+    public BTreeNode<T> getRight() {
+        return right;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
 }
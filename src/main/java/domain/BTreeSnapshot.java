@@ -0,0 +1,242 @@
+package domain;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+//Formato binario para guardar y recuperar un BTree<Integer> sin repetir las llamadas a add().
+//  encabezado: MAGIC (int), número de nodos n (int), época (int): quien guarda el
+//              snapshot anota hasta qué época de su bitácora incluye (0 si no usa una)
+//  forma:      2 bits por nodo en preorden (bit 0 = tiene hijo izquierdo, bit 1 = derecho),
+//              cuatro nodos por byte
+//  llaves:     en preorden, la diferencia con la llave anterior en zigzag + varint
+//              (7 bits por byte; llaves cercanas ocupan uno o dos bytes)
+//save() escribe forma y llaves en el mismo recorrido, cada una en su región del archivo.
+//load() mapea el archivo y rearma nodos, padres, posiciones, niveles, alturas y tamaños
+//en una sola pasada en preorden, sin recursión.
+public final class BTreeSnapshot {
+    private static final int MAGIC = 0x42545332; //"BTS2"
+    private static final int HEADER_BYTES = 12;
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private BTreeSnapshot() {
+    }
+
+    private static long shapeBytes(int n) {
+        return ((long) n + 3) >>> 2;
+    }
+
+    // ---------------------------------------------- Escritura
+
+    public static void save(BTree<Integer> tree, Path file) throws IOException {
+        save(tree, file, 0, false);
+    }
+
+    //la versión con época es la de un checkpoint: fuerza el archivo al disco antes de
+    //volver, porque quien llama va a vaciar la bitácora que el snapshot reemplaza
+    public static void save(BTree<Integer> tree, Path file, int epoch) throws IOException {
+        save(tree, file, epoch, true);
+    }
+
+    private static void save(BTree<Integer> tree, Path file, int epoch, boolean force) throws IOException {
+        TreeNodeView<Integer> root = tree.root();
+        int n = root == null ? 0 : root.getSize();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(n).putInt(epoch).flip();
+            writeFully(channel, header, 0);
+
+            Encoder encoder = new Encoder(channel, HEADER_BYTES + shapeBytes(n));
+            try {
+                tree.walk(encoder);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            encoder.flush();
+            if (force) FileSync.force(channel, file);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) position += channel.write(buffer, position);
+    }
+
+    //recibe los nodos en preorden y llena dos búferes: forma y llaves
+    private static final class Encoder implements TreeVisitor<Integer> {
+        private final FileChannel channel;
+        private final ByteBuffer shape = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        private final ByteBuffer keys = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        private long shapePosition = HEADER_BYTES;
+        private long keysPosition;
+        private int bits, nodes; //byte de forma en construcción y nodos escritos
+        private long previous;
+
+        Encoder(FileChannel channel, long keysStart) {
+            this.channel = channel;
+            this.keysPosition = keysStart;
+        }
+
+        @Override
+        public void preOrder(TreeNodeView<Integer> node, TreeNodeView<Integer> parent) {
+            try {
+                int kind = (node.getLeft() != null ? 1 : 0) | (node.getRight() != null ? 2 : 0);
+                bits |= kind << ((nodes & 3) << 1);
+                if ((++nodes & 3) == 0) {
+                    if (!shape.hasRemaining()) shapePosition = drain(shape, shapePosition);
+                    shape.put((byte) bits);
+                    bits = 0;
+                }
+
+                if (keys.remaining() < 10) keysPosition = drain(keys, keysPosition);
+                long key = node.getData();
+                long delta = key - previous;
+                previous = key;
+                long zigzag = (delta << 1) ^ (delta >> 63);
+                while ((zigzag & ~0x7FL) != 0) {
+                    keys.put((byte) ((zigzag & 0x7F) | 0x80));
+                    zigzag >>>= 7;
+                }
+                keys.put((byte) zigzag);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private long drain(ByteBuffer buffer, long position) throws IOException {
+            buffer.flip();
+            long end = position + buffer.remaining();
+            writeFully(channel, buffer, position);
+            buffer.clear();
+            return end;
+        }
+
+        void flush() throws IOException {
+            if ((nodes & 3) != 0) {
+                if (!shape.hasRemaining()) shapePosition = drain(shape, shapePosition);
+                shape.put((byte) bits);
+            }
+            drain(shape, shapePosition);
+            drain(keys, keysPosition);
+        }
+    }
+
+    // ---------------------------------------------- Lectura
+
+    //época anotada al guardar, sin leer los nodos
+    public static int epoch(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                //lee hasta completar el encabezado
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC)
+                throw new IOException("Not a BTree snapshot");
+            return header.getInt(8);
+        }
+    }
+
+    public static BTree<Integer> load(Path file, boolean indexed) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE)
+                throw new IOException("Snapshot too large to map: " + file);
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            try {
+                return decode(data, indexed);
+            } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                throw new IOException("Truncated BTree snapshot: " + file, e);
+            }
+        }
+    }
+
+    private static BTree<Integer> decode(ByteBuffer data, boolean indexed) throws IOException {
+        if (data.remaining() < HEADER_BYTES || data.getInt() != MAGIC)
+            throw new IOException("Not a BTree snapshot");
+        int n = data.getInt();
+        data.getInt(); //época
+        BTree<Integer> tree = new BTree<>(indexed);
+        if (n < 0 || HEADER_BYTES + shapeBytes(n) > data.limit())
+            throw new IOException("Invalid BTree snapshot size: " + n);
+        if (n == 0) return tree;
+
+        ByteBuffer keys = data.duplicate();
+        keys.position((int) (HEADER_BYTES + shapeBytes(n)));
+
+        //lugares pendientes en preorden: el padre y si el hijo va a la derecha
+        //(no existen arreglos genéricos; el arreglo nunca sale de este método)
+        @SuppressWarnings("unchecked")
+        BTreeNode<Integer>[] parents = (BTreeNode<Integer>[]) new BTreeNode[64];
+        boolean[] rights = new boolean[64];
+        int top = 0;
+        parents[top++] = null;
+
+        BTreeNode<Integer> root = null;
+        long previous = 0;
+        for (int i = 0; i < n; i++) {
+            if (top == 0) throw new IOException("Invalid BTree snapshot shape");
+            BTreeNode<Integer> parent = parents[--top];
+            boolean right = rights[top];
+            int kind = (data.get(HEADER_BYTES + (i >>> 2)) >>> ((i & 3) << 1)) & 3;
+            previous += readZigZag(keys);
+            if (previous != (int) previous) throw new IOException("Invalid BTree snapshot key");
+            Integer key = (int) previous;
+
+            BTreeNode<Integer> node;
+            if (parent == null) {
+                node = root = new BTreeNode<>(key, 0L, 0);
+            } else if (right) {
+                node = parent.right = new BTreeNode<>(key,
+                        BTreeNode.rightPosition(parent.position, parent.level), parent.level + 1);
+            } else {
+                node = parent.left = new BTreeNode<>(key, parent.position, parent.level + 1);
+            }
+            node.parent = parent;
+
+            if (kind == 0) {
+                //una hoja cierra a sus ancestros cuyo último hijo acaba de terminar
+                for (BTreeNode<Integer> done = node; done.parent != null; done = done.parent) {
+                    BTreeNode<Integer> up = done.parent;
+                    if (done == up.left && top > 0 && parents[top - 1] == up && rights[top - 1]) break;
+                    up.height = Math.max(up.left == null ? -1 : up.left.height,
+                            up.right == null ? -1 : up.right.height) + 1;
+                    up.size = (up.left == null ? 0 : up.left.size) + (up.right == null ? 0 : up.right.size) + 1;
+                }
+                continue;
+            }
+            if (top + 2 > parents.length) {
+                parents = java.util.Arrays.copyOf(parents, parents.length * 2);
+                rights = java.util.Arrays.copyOf(rights, rights.length * 2);
+            }
+            if ((kind & 2) != 0) {
+                parents[top] = node;
+                rights[top++] = true;
+            }
+            if ((kind & 1) != 0) {
+                parents[top] = node;
+                rights[top++] = false;
+            }
+        }
+        if (top != 0) throw new IOException("Invalid BTree snapshot shape");
+
+        tree.install(root, n);
+        return tree;
+    }
+
+    private static long readZigZag(ByteBuffer keys) throws IOException {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (shift > 63) throw new IOException("Invalid BTree snapshot key");
+            byte b = keys.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) break;
+        }
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
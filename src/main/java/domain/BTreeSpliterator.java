@@ -0,0 +1,81 @@
+package domain;
+
+import java.util.ArrayDeque;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+//Spliterator en preorden sobre un árbol de BTreeNode. Lo que falta por recorrer es
+//un nodo suelto (opcional) seguido de subárboles completos; al dividir se entrega el
+//prefijo y se conserva el último subárbol, así que cada parte es un subárbol entero
+//cuyo tamaño viene guardado en el nodo (SIZED y SUBSIZED en todas las divisiones).
+//No debe usarse mientras el árbol se modifica.
+class BTreeSpliterator<T> implements Spliterator<T> {
+
+    private BTreeNode<T> single; //nodo que se entrega antes que los subárboles
+    //subárboles pendientes, el primero es el siguiente en recorrerse
+    private final ArrayDeque<BTreeNode<T>> subtrees = new ArrayDeque<>();
+    private long remaining;
+
+    BTreeSpliterator(BTreeNode<T> root) {
+        if (root != null) {
+            subtrees.push(root);
+            remaining = root.size;
+        }
+    }
+
+    private BTreeSpliterator(BTreeNode<T> single, long remaining) {
+        this.single = single;
+        this.remaining = remaining;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        if (single != null) {
+            BTreeNode<T> node = single;
+            single = null;
+            remaining--;
+            action.accept(node.data);
+            return true;
+        }
+        BTreeNode<T> node = subtrees.pollFirst();
+        if (node == null) return false;
+        if (node.right != null) subtrees.addFirst(node.right);
+        if (node.left != null) subtrees.addFirst(node.left);
+        remaining--;
+        action.accept(node.data);
+        return true;
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        //un único subárbol: su raíz pasa a ser el nodo suelto y quedan sus hijos
+        if (single == null && subtrees.size() == 1) {
+            BTreeNode<T> node = subtrees.peekFirst();
+            if (node.left == null && node.right == null) return null;
+            subtrees.pollFirst();
+            single = node;
+            if (node.right != null) subtrees.addFirst(node.right);
+            if (node.left != null) subtrees.addFirst(node.left);
+        }
+        if (subtrees.isEmpty() || (single == null && subtrees.size() < 2)) return null;
+
+        //el prefijo se lleva el nodo suelto y todos los subárboles menos el último
+        BTreeNode<T> last = subtrees.pollLast();
+        BTreeSpliterator<T> prefix = new BTreeSpliterator<>(single, remaining - last.size);
+        while (!subtrees.isEmpty()) prefix.subtrees.addLast(subtrees.pollFirst());
+        single = null;
+        subtrees.addLast(last);
+        remaining = last.size;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return remaining;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED;
+    }
+}
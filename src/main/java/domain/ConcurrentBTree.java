@@ -0,0 +1,228 @@
+package domain;
+
+import java.util.concurrent.locks.StampedLock;
+
+//Versión de BTree que puede compartirse entre hilos. Todas las operaciones se delegan
+//en un BTree protegido por un StampedLock:
+//  - size, isEmpty y height() leen un par de campos: usan lectura optimista (sin
+//    bloquear) y solo si un escritor interfirió repiten la lectura con el candado.
+//  - contains, height(element) y los recorridos comparten el candado de lectura: corren
+//    en paralelo entre sí y solo esperan a los escritores.
+//  - add, remove y las operaciones masivas toman el candado exclusivo.
+//  - root() y walk copian la estructura con el candado de lectura y la recorren sin
+//    él: un visitante puede modificar el árbol sin bloquearse a sí mismo.
+public class ConcurrentBTree<T> implements Tree<T> {
+    private final BTree<T> tree;
+    private final StampedLock lock = new StampedLock();
+
+    //lectura del árbol que puede lanzar TreeException
+    private interface Read<R> {
+        R apply() throws TreeException;
+    }
+
+    //el índice valor -> nodo viene activado: contains y remove no recorren el árbol
+    public ConcurrentBTree() {
+        this(true);
+    }
+
+    public ConcurrentBTree(boolean indexed) {
+        this.tree = new BTree<>(indexed);
+    }
+
+    public ConcurrentBTree(java.util.Comparator<? super T> comparator, boolean indexed) {
+        this.tree = new BTree<>(comparator, indexed);
+    }
+
+    private <R> R optimistic(Read<R> read) throws TreeException {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                R result = read.apply();
+                if (lock.validate(stamp)) return result;
+            } catch (TreeException | RuntimeException e) {
+                if (lock.validate(stamp)) throw e;
+            }
+        }
+        return shared(read);
+    }
+
+    private <R> R shared(Read<R> read) throws TreeException {
+        long stamp = lock.readLock();
+        try {
+            return read.apply();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private <R> R exclusive(Read<R> write) throws TreeException {
+        long stamp = lock.writeLock();
+        try {
+            return write.apply();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    //para operaciones que no lanzan TreeException
+    private <R> R exclusiveUnchecked(java.util.function.Supplier<R> write) {
+        long stamp = lock.writeLock();
+        try {
+            return write.get();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private <R> R sharedUnchecked(java.util.function.Supplier<R> read) {
+        long stamp = lock.readLock();
+        try {
+            return read.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public int size() throws TreeException {
+        return optimistic(tree::size);
+    }
+
+    @Override
+    public void clear() {
+        exclusiveUnchecked(() -> {
+            tree.clear();
+            return null;
+        });
+    }
+
+    @Override
+    public boolean isEmpty() {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            boolean empty = tree.isEmpty();
+            if (lock.validate(stamp)) return empty;
+        }
+        return sharedUnchecked(tree::isEmpty);
+    }
+
+    @Override
+    public boolean contains(T element) throws TreeException {
+        return shared(() -> tree.contains(element));
+    }
+
+    @Override
+    public void add(T element) {
+        exclusiveUnchecked(() -> {
+            tree.add(element);
+            return null;
+        });
+    }
+
+    @Override
+    public void remove(T element) throws TreeException {
+        exclusive(() -> {
+            tree.remove(element);
+            return null;
+        });
+    }
+
+    public void addAll(java.util.Collection<? extends T> elements) {
+        exclusiveUnchecked(() -> {
+            tree.addAll(elements);
+            return null;
+        });
+    }
+
+    public boolean removeAll(java.util.Collection<?> elements) {
+        return exclusiveUnchecked(() -> tree.removeAll(elements));
+    }
+
+    public boolean removeIf(java.util.function.Predicate<? super T> condition) {
+        return exclusiveUnchecked(() -> tree.removeIf(condition));
+    }
+
+    @Override
+    public int height(T element) throws TreeException {
+        return shared(() -> tree.height(element));
+    }
+
+    @Override
+    public int height() throws TreeException {
+        return optimistic(tree::height);
+    }
+
+    @Override
+    public T min() throws TreeException {
+        return shared(tree::min);
+    }
+
+    @Override
+    public T max() throws TreeException {
+        return shared(tree::max);
+    }
+
+    public int totalLeaves() throws TreeException {
+        return shared(tree::totalLeaves);
+    }
+
+    public boolean validateStructure() {
+        return sharedUnchecked(tree::validateStructure);
+    }
+
+    @Override
+    public String preOrder() throws TreeException {
+        return shared(tree::preOrder);
+    }
+
+    @Override
+    public String inOrder() throws TreeException {
+        return shared(tree::inOrder);
+    }
+
+    @Override
+    public String postOrder() throws TreeException {
+        return shared(tree::postOrder);
+    }
+
+    //los escritores esperan mientras se escribe en el destino
+    @Override
+    public void preOrder(Appendable out) throws TreeException, java.io.IOException {
+        write(() -> tree.preOrder(out));
+    }
+
+    @Override
+    public void inOrder(Appendable out) throws TreeException, java.io.IOException {
+        write(() -> tree.inOrder(out));
+    }
+
+    @Override
+    public void postOrder(Appendable out) throws TreeException, java.io.IOException {
+        write(() -> tree.postOrder(out));
+    }
+
+    private interface Output {
+        void write() throws TreeException, java.io.IOException;
+    }
+
+    private void write(Output output) throws TreeException, java.io.IOException {
+        long stamp = lock.readLock();
+        try {
+            output.write();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    //copia inmutable tomada con el candado de lectura (O(n)); walk la recorre ya sin
+    //candado, así que los cambios posteriores no se ven en la copia
+    @Override
+    public TreeNodeView<T> root() {
+        return sharedUnchecked(() -> PersistentBTree.Node.copyOf(tree.root()));
+    }
+
+    @Override
+    public String toString() {
+        return sharedUnchecked(tree::toString);
+    }
+}
@@ -0,0 +1,221 @@
+package domain;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.locks.StampedLock;
+
+//BTree<Integer> durable: cada add/remove/clear se anota primero en un BTreeLog y recién
+//después se aplica al árbol, las dos cosas dentro del mismo candado exclusivo, así el
+//orden de la bitácora es el orden en que se aplicaron los cambios y un cambio que la
+//bitácora rechaza no llega al árbol. La espera del commit (el fsync) ocurre fuera del
+//candado, de modo que los escritores concurrentes se agrupan en un mismo commit.
+//Por eso los lectores pueden ver un cambio antes de que sea durable: solo quien lo
+//escribió espera a que lo sea. Si la bitácora falla, el árbol deja de aceptar cambios
+//(los que ya se aplicaron pero no se confirmaron pueden perderse en una caída).
+//Al abrir se carga el último snapshot (BTreeSnapshot) y se reaplica la bitácora;
+//checkpoint() guarda un snapshot nuevo, que anota la época de la bitácora que incluye,
+//y empieza una época nueva: si la caída ocurre entre ambos pasos, al abrir se ve que la
+//bitácora ya está en el snapshot y no se reaplica.
+public class DurableBTree implements Tree<Integer>, AutoCloseable {
+    private final BTree<Integer> tree;
+    private final BTreeLog log;
+    private final Path snapshotFile;
+    private final StampedLock lock = new StampedLock();
+    private volatile IOException failure; //primer error de la bitácora
+
+    private DurableBTree(BTree<Integer> tree, BTreeLog log, Path snapshotFile) {
+        this.tree = tree;
+        this.log = log;
+        this.snapshotFile = snapshotFile;
+    }
+
+    //recupera el árbol: snapshot (si existe) y luego los registros válidos de la bitácora
+    public static DurableBTree open(Path snapshotFile, Path logFile, BTreeLog.Sync sync, int maxBatch)
+            throws IOException {
+        boolean snapshot = Files.exists(snapshotFile);
+        int covered = snapshot ? BTreeSnapshot.epoch(snapshotFile) : 0;
+        BTree<Integer> tree = snapshot ? BTreeSnapshot.load(snapshotFile, true) : new BTree<>(true);
+        BTreeLog.replay(logFile, tree, covered);
+        BTreeLog log = new BTreeLog(logFile, sync, maxBatch);
+        //un checkpoint interrumpido: la bitácora ya está en el snapshot
+        if (log.epoch() <= covered) log.reset(covered + 1);
+        return new DurableBTree(tree, log, snapshotFile);
+    }
+
+    //grupos escritos en la bitácora desde que se abrió
+    public long commits() {
+        return log.commits();
+    }
+
+    //escribe el snapshot a un archivo temporal forzado al disco, lo renombra, fuerza el
+    //directorio para que el nombre nuevo sobreviva a una caída y recién entonces empieza
+    //una época nueva de la bitácora
+    public void checkpoint() throws IOException {
+        long stamp = lock.writeLock();
+        try {
+            checkWritable();
+            int epoch = log.epoch();
+            Path temporary = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            BTreeSnapshot.save(tree, temporary, epoch);
+            Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            try {
+                FileSync.forceDirectory(snapshotFile.toAbsolutePath().getParent());
+                log.reset(epoch + 1);
+            } catch (IOException e) {
+                //el snapshot ya cubre esta época: lo que se siguiera anotando en ella
+                //no se reaplicaría al abrir, así que el árbol queda de solo lectura
+                failure = e;
+                throw e;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void checkWritable() {
+        IOException failed = failure;
+        if (failed != null) throw new IllegalStateException("Log failed; the tree is read-only", failed);
+    }
+
+    //anota y aplica bajo el candado; espera la durabilidad fuera de él
+    private void write(byte operation, int key) throws TreeException {
+        long sequence;
+        long stamp = lock.writeLock();
+        try {
+            checkWritable();
+            //lo que fallaría al aplicar no se anota
+            if (operation == BTreeLog.REMOVE && tree.isEmpty())
+                throw new TreeException("Binary Tree is empty");
+            sequence = log.append(operation, key);
+            BTreeLog.apply(tree, operation, key);
+        } catch (IOException e) {
+            failure = e;
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        try {
+            log.await(sequence);
+        } catch (IOException e) {
+            failure = e;
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <R> R read(java.util.function.Supplier<R> read) {
+        long stamp = lock.readLock();
+        try {
+            return read.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private interface Read<R> {
+        R apply() throws TreeException;
+    }
+
+    private <R> R shared(Read<R> read) throws TreeException {
+        long stamp = lock.readLock();
+        try {
+            return read.apply();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public void add(Integer element) {
+        try {
+            write(BTreeLog.ADD, element);
+        } catch (TreeException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void remove(Integer element) throws TreeException {
+        write(BTreeLog.REMOVE, element);
+    }
+
+    @Override
+    public void clear() {
+        try {
+            write(BTreeLog.CLEAR, 0);
+        } catch (TreeException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public int size() throws TreeException {
+        return shared(tree::size);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return read(tree::isEmpty);
+    }
+
+    @Override
+    public boolean contains(Integer element) throws TreeException {
+        return shared(() -> tree.contains(element));
+    }
+
+    @Override
+    public int height(Integer element) throws TreeException {
+        return shared(() -> tree.height(element));
+    }
+
+    @Override
+    public int height() throws TreeException {
+        return shared(tree::height);
+    }
+
+    @Override
+    public Integer min() throws TreeException {
+        return shared(tree::min);
+    }
+
+    @Override
+    public Integer max() throws TreeException {
+        return shared(tree::max);
+    }
+
+    @Override
+    public String preOrder() throws TreeException {
+        return shared(tree::preOrder);
+    }
+
+    @Override
+    public String inOrder() throws TreeException {
+        return shared(tree::inOrder);
+    }
+
+    @Override
+    public String postOrder() throws TreeException {
+        return shared(tree::postOrder);
+    }
+
+    //copia inmutable tomada con el candado de lectura (O(n)); walk la recorre sin
+    //candado, así un visitante puede modificar el árbol
+    @Override
+    public TreeNodeView<Integer> root() {
+        return read(() -> PersistentBTree.Node.copyOf(tree.root()));
+    }
+
+    //cierra la bitácora después de escribir lo pendiente
+    @Override
+    public void close() throws IOException {
+        log.close();
+    }
+
+    @Override
+    public String toString() {
+        return read(tree::toString);
+    }
+}
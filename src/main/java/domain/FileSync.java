@@ -0,0 +1,39 @@
+package domain;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+//Barreras de durabilidad de un checkpoint: el snapshot forzado, el directorio que
+//guarda su nombre nuevo y la época nueva de la bitácora. Pasan por aquí para que las
+//pruebas puedan ver en qué orden llegan al disco.
+final class FileSync {
+    //recibe cada archivo o directorio después de forzarlo (solo pruebas)
+    static volatile java.util.function.Consumer<Path> observer;
+
+    private FileSync() {
+    }
+
+    //contenido y metadatos del archivo
+    static void force(FileChannel channel, Path file) throws IOException {
+        channel.force(true);
+        notify(file);
+    }
+
+    //un rename solo sobrevive a la caída del sistema si se fuerza el directorio
+    static void forceDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            //algunos sistemas (Windows) no abren directorios como archivos; ahí el rename ya es durable
+            if (!System.getProperty("os.name", "").startsWith("Windows")) throw e;
+        }
+        notify(directory);
+    }
+
+    private static void notify(Path path) {
+        java.util.function.Consumer<Path> current = observer;
+        if (current != null) current.accept(path);
+    }
+}
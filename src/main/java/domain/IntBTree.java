@@ -0,0 +1,434 @@
+package domain;
+
+//Versión de BTree especializada para llaves int: mismo algoritmo de inserción
+//balanceada y mismos métodos, pero las llaves se comparan con == sin boxing
+//ni util.Utility.compare. Los métodos de Tree reciben Integer y delegan
+//en las versiones int.
+//Un índice llave -> nodo (tabla hash encadenada por los propios nodos, sin boxing)
+//y los enlaces al padre hacen que add, contains y remove no recorran el árbol;
+//los recorridos usan una pila explícita en lugar de recursión.
+public class IntBTree implements Tree<Integer> {
+    private static final int PRE_ORDER = 0, IN_ORDER = 1, POST_ORDER = 2;
+
+    private IntBTreeNode root; //se refiere a la raiz del arbol
+    private int count; //número de elementos
+    private IntBTreeNode[] buckets = new IntBTreeNode[16]; //cubetas del índice (potencia de 2)
+
+    @Override
+    public int size() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        return count;
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        count = 0;
+        buckets = new IntBTreeNode[16];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return root==null;
+    }
+
+    // ---------------------------------------------- Índice llave -> nodo
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private IntBTreeNode findNode(int element) {
+        for (IntBTreeNode node = buckets[hash(element) & (buckets.length - 1)]; node != null; node = node.nextInBucket) {
+            if (node.data == element) return node;
+        }
+        return null;
+    }
+
+    private void link(IntBTreeNode node) {
+        if (count > buckets.length) grow();
+        int bucket = hash(node.data) & (buckets.length - 1);
+        node.nextInBucket = buckets[bucket];
+        buckets[bucket] = node;
+    }
+
+    private void unlink(IntBTreeNode node) {
+        int bucket = hash(node.data) & (buckets.length - 1);
+        if (buckets[bucket] == node) {
+            buckets[bucket] = node.nextInBucket;
+        } else {
+            IntBTreeNode previous = buckets[bucket];
+            while (previous.nextInBucket != node) previous = previous.nextInBucket;
+            previous.nextInBucket = node.nextInBucket;
+        }
+        node.nextInBucket = null;
+    }
+
+    private void grow() {
+        IntBTreeNode[] old = buckets;
+        buckets = new IntBTreeNode[old.length * 2];
+        for (IntBTreeNode node : old) {
+            while (node != null) {
+                IntBTreeNode next = node.nextInBucket;
+                int bucket = hash(node.data) & (buckets.length - 1);
+                node.nextInBucket = buckets[bucket];
+                buckets[bucket] = node;
+                node = next;
+            }
+        }
+    }
+
+    // ---------------------------------------------- Operaciones de Tree
+
+    @Override
+    public boolean contains(Integer element) throws TreeException {
+        return contains(element.intValue());
+    }
+
+    public boolean contains(int element) throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        return findNode(element) != null;
+    }
+
+    @Override
+    public void add(Integer element) {
+        add(element.intValue());
+    }
+
+    public void add(int element) {
+        // Verificar si el elemento ya existe para evitar duplicados
+        if (findNode(element) != null) {
+            return; // No agregar duplicados
+        }
+        IntBTreeNode newNode;
+        if (root == null) newNode = root = new IntBTreeNode(element, 0);
+        else newNode = addBalanced(element);
+        count++;
+        link(newNode);
+    }
+
+    // Inserción balanceada: se baja por el subárbol de menor altura hasta un lugar libre
+    // y luego se actualizan las alturas subiendo por los padres
+    private IntBTreeNode addBalanced(int element) {
+        IntBTreeNode node = root;
+        IntBTreeNode newNode = null;
+        while (newNode == null) {
+            if (getSubtreeHeight(node.left) <= getSubtreeHeight(node.right)) {
+                if (node.left == null) newNode = node.left = new IntBTreeNode(element, node.level + 1);
+                else node = node.left;
+            } else {
+                if (node.right == null) newNode = node.right = new IntBTreeNode(element, node.level + 1);
+                else node = node.right;
+            }
+        }
+        newNode.parent = node;
+        updateHeightsUpFrom(node);
+        return newNode;
+    }
+
+    private int getSubtreeHeight(IntBTreeNode node) {
+        if (node == null) return -1;
+        return node.height;
+    }
+
+    private void updateHeight(IntBTreeNode node) {
+        node.height = Math.max(getSubtreeHeight(node.left), getSubtreeHeight(node.right)) + 1;
+    }
+
+    private void updateHeightsUpFrom(IntBTreeNode node) {
+        for (; node != null; node = node.parent) updateHeight(node);
+    }
+
+    @Override
+    public void remove(Integer element) throws TreeException {
+        remove(element.intValue());
+    }
+
+    public void remove(int element) throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        IntBTreeNode node = findNode(element);
+        if (node == null) return;
+        IntBTreeNode parent = node.parent;
+        unlink(node);
+        count--;
+
+        //caso 1. es un nodo si hijos, es una hoja
+        if(node.left==null && node.right==null) replaceChild(parent, node, null);
+            //caso 2-a. el nodo solo tien un hijo, el hijo izq
+        else if (node.left!=null&&node.right==null) {
+            replaceChild(parent, node, newLevel(node.left, node.level));
+        } //caso 2-b. el nodo solo tien un hijo, el hijo der
+        else if (node.left==null&&node.right!=null) {
+            replaceChild(parent, node, newLevel(node.right, node.level));
+        }
+        //caso 3. el nodo tiene dos hijos: toma el valor de una hoja del subárbol derecho
+        else{
+            IntBTreeNode leaf = node.right;
+            while (leaf.left != null || leaf.right != null) {
+                leaf = leaf.left != null ? leaf.left : leaf.right;
+            }
+            unlink(leaf);
+            node.data = leaf.data;
+            link(node);
+            parent = leaf.parent;
+            replaceChild(parent, leaf, null);
+        }
+        updateHeightsUpFrom(parent);
+    }
+
+    //cambia el hijo oldChild de parent (o la raíz, si parent es null) por newChild
+    private void replaceChild(IntBTreeNode parent, IntBTreeNode oldChild, IntBTreeNode newChild) {
+        if (parent == null) root = newChild;
+        else if (parent.left == oldChild) parent.left = newChild;
+        else parent.right = newChild;
+        if (newChild != null) newChild.parent = parent;
+        oldChild.parent = null;
+    }
+
+    //renumera los niveles de un subárbol promovido
+    private IntBTreeNode newLevel(IntBTreeNode subtree, int level){
+        subtree.level = level;
+        forEach(subtree, PRE_ORDER, node -> {
+            if (node.left != null) node.left.level = node.level + 1;
+            if (node.right != null) node.right.level = node.level + 1;
+        });
+        return subtree;
+    }
+
+    //copia inmutable de la estructura (O(n) nodos en el heap) para recorrerla con
+    //TreeVisitor o dibujarla; null si el árbol está vacío
+    @Override
+    public TreeNodeView<Integer> root() {
+        PersistentBTree.PostOrderCopy<Integer> copy = new PersistentBTree.PostOrderCopy<>();
+        forEach(root, POST_ORDER, node -> copy.add(node.data, node.left != null, node.right != null));
+        return copy.root();
+    }
+
+    //recorre los nodos sin copiarlos: cada vista envuelve un IntBTreeNode durante el recorrido
+    @Override
+    public void walk(TreeVisitor<Integer> visitor) {
+        WalkNode.walk(view(root), visitor);
+    }
+
+    private static WalkNode<Integer> view(IntBTreeNode node) {
+        return node == null ? null : new NodeView(node);
+    }
+
+    private static final class NodeView extends WalkNode<Integer> {
+        private final IntBTreeNode node;
+
+        NodeView(IntBTreeNode node) {
+            this.node = node;
+        }
+
+        @Override
+        public Integer getData() {
+            return node.data;
+        }
+
+        @Override
+        WalkNode<Integer> leftChild() {
+            return view(node.left);
+        }
+
+        @Override
+        WalkNode<Integer> rightChild() {
+            return view(node.right);
+        }
+
+        @Override
+        public int getHeight() {
+            return node.height;
+        }
+    }
+
+    //recorrido en profundidad con pila explícita; entrega los nodos en el orden pedido
+    private void forEach(IntBTreeNode from, int order, java.util.function.Consumer<IntBTreeNode> action) {
+        java.util.ArrayDeque<IntBTreeNode> stack = new java.util.ArrayDeque<>();
+        IntBTreeNode node = from;
+        IntBTreeNode lastVisited = null;
+        while (node != null || !stack.isEmpty()) {
+            if (node != null) {
+                if (order == PRE_ORDER) action.accept(node);
+                stack.push(node);
+                node = node.left;
+                continue;
+            }
+            IntBTreeNode top = stack.peek();
+            if (top.right == null || lastVisited != top.right) {
+                //se vuelve del subárbol izquierdo
+                if (order == IN_ORDER) action.accept(top);
+                if (top.right != null) {
+                    node = top.right;
+                    continue;
+                }
+            }
+            stack.pop();
+            if (order == POST_ORDER) action.accept(top);
+            lastVisited = top;
+        }
+    }
+
+    @Override
+    public int height(Integer element) throws TreeException {
+        return height(element.intValue());
+    }
+
+    public int height(int element) throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        IntBTreeNode node = findNode(element);
+        return node == null ? 0 : node.level;
+    }
+
+    @Override
+    public int height() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        return getSubtreeHeight(root);
+    }
+
+    @Override
+    public Integer min() throws TreeException {
+        return null;
+    }
+
+    @Override
+    public Integer max() throws TreeException {
+        return null;
+    }
+
+    @Override
+    public String preOrder() throws TreeException {
+        return traversal(PRE_ORDER);
+    }
+
+    @Override
+    public String inOrder() throws TreeException {
+        return traversal(IN_ORDER);
+    }
+
+    @Override
+    public String postOrder() throws TreeException {
+        return traversal(POST_ORDER);
+    }
+
+    private String traversal(int order) throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        StringBuilder result = new StringBuilder();
+        forEach(root, order, node -> result.append(node.data).append(' '));
+        return result.toString().trim();
+    }
+
+    @Override
+    public String toString() {
+        String result;
+        try {
+            result = "PreOrder: "+preOrder();
+            result+= "\nInOrder: "+inOrder();
+            result+= "\nPostOrder: "+postOrder();
+
+        } catch (TreeException e) {
+            result = "Binary Tree is empty";
+        }
+        return result;
+    }
+
+    // MÉTODOS ADICIONALES (mismos que BTree)
+
+    public String printLeaves() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        StringBuilder result = new StringBuilder();
+        forEach(root, PRE_ORDER, node -> {
+            if(node.left == null && node.right == null) {
+                result.append(node.data).append(", ");
+            }
+        });
+        return "Binary tree - leaves: " + withoutLastComma(result);
+    }
+
+    public String printNodes1Child() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        StringBuilder result = new StringBuilder("Binary tree - nodes 1 child\n");
+        forEach(root, PRE_ORDER, node -> {
+            if ((node.left != null) != (node.right != null)) {
+                result.append("Node: ").append(node.data);
+                if (node.left != null) {
+                    result.append(", left son: ").append(node.left.data);
+                } else {
+                    result.append(", right son: ").append(node.right.data);
+                }
+                result.append("\n");
+            }
+        });
+        return result.toString();
+    }
+
+    public String printNodes2Children() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        StringBuilder result = new StringBuilder("Binary tree - nodes 2 children\n");
+        forEach(root, PRE_ORDER, node -> {
+            if (node.left != null && node.right != null) {
+                result.append("Node: ").append(node.data).append(", left son: ").append(node.left.data)
+                        .append(", right son: ").append(node.right.data).append("\n");
+            }
+        });
+        return result.toString();
+    }
+
+    public String printNodesWithChildren() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        StringBuilder result = new StringBuilder("Binary tree - nodes with children\n");
+        forEach(root, PRE_ORDER, node -> {
+            if (node.left != null || node.right != null) {
+                result.append("Node: ").append(node.data).append(", children: ");
+                if (node.left != null && node.right != null) {
+                    result.append(node.left.data).append(", ").append(node.right.data);
+                } else if (node.left != null) {
+                    result.append("left son: ").append(node.left.data);
+                } else {
+                    result.append("right son: ").append(node.right.data);
+                }
+                result.append("\n");
+            }
+        });
+        return result.toString();
+    }
+
+    public String printSubTree(int element) throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        IntBTreeNode foundNode = findNode(element);
+        if(foundNode == null)
+            throw new TreeException("Element not found in the tree");
+
+        StringBuilder result = new StringBuilder();
+        forEach(foundNode, PRE_ORDER, node -> result.append(node.data).append(", "));
+        return "Binary tree - subtree: " + withoutLastComma(result);
+    }
+
+    public int totalLeaves() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        int[] leaves = new int[1];
+        forEach(root, PRE_ORDER, node -> {
+            if(node.left == null && node.right == null) leaves[0]++;
+        });
+        return leaves[0];
+    }
+
+    //mismo formato que BTree (que recorta con trim()): solo se quita el espacio final
+    private String withoutLastComma(StringBuilder result) {
+        if (result.length() > 0) result.setLength(result.length() - 1);
+        return result.toString();
+    }
+}
@@ -0,0 +1,18 @@
+package domain;
+
+//Nodo de IntBTree: guarda la llave como int primitivo, sin boxing
+public class IntBTreeNode {
+    public int data;
+    public IntBTreeNode left, right;
+    public int height; //altura del subárbol que inicia en este nodo (hoja = 0)
+    public int level; //número de ancestros del nodo (raíz = 0)
+    IntBTreeNode parent; //null en la raíz; lo mantiene IntBTree para borrar en O(altura)
+    IntBTreeNode nextInBucket; //siguiente nodo de la misma cubeta del índice de IntBTree
+
+    public IntBTreeNode(int data, int level) {
+        this.data = data;
+        this.left = this.right = null;
+        this.level = level;
+    }
+
+}
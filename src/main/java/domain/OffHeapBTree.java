@@ -0,0 +1,449 @@
+package domain;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+//Versión de BTree (llaves int) cuyos nodos viven fuera del heap, como registros
+//de ancho fijo en ByteBuffers directos. El recolector de basura solo ve los
+//bloques, no los nodos, y el espacio ocupado es (bloques * BLOCK_BYTES).
+//Mismo algoritmo de inserción balanceada y de borrado que BTree.
+//Cada registro guarda también su padre y el siguiente registro de su cubeta en un
+//índice llave -> registro (tabla hash encadenada, también fuera del heap): add,
+//contains y remove no recorren el árbol, y ningún algoritmo usa recursión.
+//close() suelta los bloques; la memoria directa se devuelve al sistema cuando
+//el ByteBuffer es recolectado (Java 9 no ofrece una liberación inmediata).
+public class OffHeapBTree implements Tree<Integer>, AutoCloseable {
+    //registro: llave, hijo izq, hijo der, altura del subárbol, padre y siguiente de
+    //la cubeta (6 ints = 24 bytes)
+    private static final int KEY = 0, LEFT = 4, RIGHT = 8, HEIGHT = 12, PARENT = 16, NEXT = 20;
+    private static final int RECORD_BYTES = 24;
+    private static final int BLOCK_SHIFT = 12; //4096 registros por bloque
+    private static final int BLOCK_RECORDS = 1 << BLOCK_SHIFT;
+    private static final int BLOCK_MASK = BLOCK_RECORDS - 1;
+    public static final int BLOCK_BYTES = BLOCK_RECORDS * RECORD_BYTES;
+    private static final int NULL = -1; //equivale a una referencia null
+
+    private static final int MIN_BUCKETS = 1024;
+
+    private ByteBuffer[] blocks = new ByteBuffer[0];
+    private java.nio.IntBuffer buckets = newBuckets(MIN_BUCKETS); //primer registro de cada cubeta
+    private int root = NULL;
+    private int count; //nodos en uso
+    private int allocated; //registros usados alguna vez (los libres se reciclan)
+    private int free = NULL; //lista de registros libres, enlazados por el campo LEFT
+    private boolean closed;
+
+    // ---------------------------------------------- Acceso a los registros
+    private ByteBuffer block(int node) {
+        return blocks[node >>> BLOCK_SHIFT];
+    }
+
+    private int offset(int node, int field) {
+        return ((node & BLOCK_MASK) * RECORD_BYTES) + field;
+    }
+
+    private int key(int node) { return block(node).getInt(offset(node, KEY)); }
+    private int left(int node) { return block(node).getInt(offset(node, LEFT)); }
+    private int right(int node) { return block(node).getInt(offset(node, RIGHT)); }
+    private int nodeHeight(int node) { return block(node).getInt(offset(node, HEIGHT)); }
+    private int parent(int node) { return block(node).getInt(offset(node, PARENT)); }
+    private int next(int node) { return block(node).getInt(offset(node, NEXT)); }
+
+    private void setKey(int node, int value) { block(node).putInt(offset(node, KEY), value); }
+    private void setLeft(int node, int value) { block(node).putInt(offset(node, LEFT), value); }
+    private void setRight(int node, int value) { block(node).putInt(offset(node, RIGHT), value); }
+    private void setHeight(int node, int value) { block(node).putInt(offset(node, HEIGHT), value); }
+    private void setParent(int node, int value) { block(node).putInt(offset(node, PARENT), value); }
+    private void setNext(int node, int value) { block(node).putInt(offset(node, NEXT), value); }
+
+    private int newNode(int key) {
+        int node;
+        if (free != NULL) {
+            node = free;
+            free = left(free);
+        } else {
+            if (allocated == blocks.length * BLOCK_RECORDS) {
+                blocks = java.util.Arrays.copyOf(blocks, blocks.length + 1);
+                blocks[blocks.length - 1] = ByteBuffer.allocateDirect(BLOCK_BYTES).order(ByteOrder.nativeOrder());
+            }
+            node = allocated++;
+        }
+        setKey(node, key);
+        setLeft(node, NULL);
+        setRight(node, NULL);
+        setHeight(node, 0);
+        setParent(node, NULL);
+        setNext(node, NULL);
+        count++;
+        return node;
+    }
+
+    private void freeNode(int node) {
+        setLeft(node, free);
+        free = node;
+        count--;
+    }
+
+    private void checkOpen() {
+        if (closed) throw new IllegalStateException("Off-heap tree is closed");
+    }
+
+    // ---------------------------------------------- Índice llave -> registro
+
+    private static java.nio.IntBuffer newBuckets(int capacity) {
+        java.nio.IntBuffer table = ByteBuffer.allocateDirect(capacity * Integer.BYTES)
+                .order(ByteOrder.nativeOrder()).asIntBuffer();
+        for (int i = 0; i < capacity; i++) table.put(i, NULL);
+        return table;
+    }
+
+    private int bucket(int key) {
+        int h = key * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (buckets.capacity() - 1);
+    }
+
+    private int findNode(int element) {
+        for (int node = buckets.get(bucket(element)); node != NULL; node = next(node)) {
+            if (key(node) == element) return node;
+        }
+        return NULL;
+    }
+
+    private void link(int node) {
+        if (count > buckets.capacity()) grow();
+        int bucket = bucket(key(node));
+        setNext(node, buckets.get(bucket));
+        buckets.put(bucket, node);
+    }
+
+    private void unlink(int node) {
+        int bucket = bucket(key(node));
+        int current = buckets.get(bucket);
+        if (current == node) {
+            buckets.put(bucket, next(node));
+        } else {
+            while (next(current) != node) current = next(current);
+            setNext(current, next(node));
+        }
+        setNext(node, NULL);
+    }
+
+    private void grow() {
+        java.nio.IntBuffer old = buckets;
+        buckets = newBuckets(old.capacity() * 2);
+        for (int i = 0; i < old.capacity(); i++) {
+            for (int node = old.get(i); node != NULL; ) {
+                int next = next(node);
+                int bucket = bucket(key(node));
+                setNext(node, buckets.get(bucket));
+                buckets.put(bucket, node);
+                node = next;
+            }
+        }
+    }
+
+    //bytes reservados fuera del heap (registros e índice)
+    public long offHeapBytes() {
+        return (long) blocks.length * BLOCK_BYTES + (long) buckets.capacity() * Integer.BYTES;
+    }
+
+    @Override
+    public void close() {
+        blocks = new ByteBuffer[0];
+        buckets = newBuckets(1);
+        root = free = NULL;
+        count = allocated = 0;
+        closed = true;
+    }
+
+    // ---------------------------------------------- Operaciones de Tree
+    @Override
+    public int size() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        return count;
+    }
+
+    //conserva los bloques ya reservados para reutilizarlos
+    @Override
+    public void clear() {
+        checkOpen();
+        root = free = NULL;
+        count = allocated = 0;
+        for (int i = 0; i < buckets.capacity(); i++) buckets.put(i, NULL);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        checkOpen();
+        return root==NULL;
+    }
+
+    @Override
+    public boolean contains(Integer element) throws TreeException {
+        return contains(element.intValue());
+    }
+
+    public boolean contains(int element) throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        return findNode(element) != NULL;
+    }
+
+    @Override
+    public void add(Integer element) {
+        add(element.intValue());
+    }
+
+    public void add(int element) {
+        checkOpen();
+        // Verificar si el elemento ya existe para evitar duplicados
+        if (findNode(element) != NULL) {
+            return; // No agregar duplicados
+        }
+        int newNode = newNode(element);
+        if (root == NULL) root = newNode;
+        else addBalanced(newNode);
+        link(newNode);
+    }
+
+    // Inserción balanceada: se baja por el subárbol de menor altura hasta un lugar libre
+    // y luego se actualizan las alturas subiendo por los padres
+    private void addBalanced(int newNode) {
+        int node = root;
+        while (true) {
+            if (getSubtreeHeight(left(node)) <= getSubtreeHeight(right(node))) {
+                if (left(node) == NULL) {
+                    setLeft(node, newNode);
+                    break;
+                }
+                node = left(node);
+            } else {
+                if (right(node) == NULL) {
+                    setRight(node, newNode);
+                    break;
+                }
+                node = right(node);
+            }
+        }
+        setParent(newNode, node);
+        updateHeightsUpFrom(node);
+    }
+
+    private int getSubtreeHeight(int node) {
+        return node == NULL ? -1 : nodeHeight(node);
+    }
+
+    private void updateHeight(int node) {
+        setHeight(node, Math.max(getSubtreeHeight(left(node)), getSubtreeHeight(right(node))) + 1);
+    }
+
+    private void updateHeightsUpFrom(int node) {
+        for (; node != NULL; node = parent(node)) updateHeight(node);
+    }
+
+    @Override
+    public void remove(Integer element) throws TreeException {
+        remove(element.intValue());
+    }
+
+    public void remove(int element) throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        int node = findNode(element);
+        if (node == NULL) return;
+        int parent = parent(node);
+        int left = left(node), right = right(node);
+        unlink(node);
+
+        //caso 1 y 2. el nodo no tiene hijos o tiene solo uno
+        if(left==NULL || right==NULL) {
+            replaceChild(parent, node, left != NULL ? left : right);
+            freeNode(node);
+        }
+        //caso 3. el nodo tiene dos hijos: toma el valor de una hoja del subárbol derecho
+        else {
+            int leaf = right;
+            while (left(leaf) != NULL || right(leaf) != NULL) {
+                leaf = left(leaf) != NULL ? left(leaf) : right(leaf);
+            }
+            unlink(leaf);
+            setKey(node, key(leaf));
+            link(node);
+            parent = parent(leaf);
+            replaceChild(parent, leaf, NULL);
+            freeNode(leaf);
+        }
+        updateHeightsUpFrom(parent);
+    }
+
+    //cambia el hijo oldChild de parent (o la raíz, si parent es NULL) por newChild
+    private void replaceChild(int parent, int oldChild, int newChild) {
+        if (parent == NULL) root = newChild;
+        else if (left(parent) == oldChild) setLeft(parent, newChild);
+        else setRight(parent, newChild);
+        if (newChild != NULL) setParent(newChild, parent);
+    }
+
+    @Override
+    public int height(Integer element) throws TreeException {
+        return height(element.intValue());
+    }
+
+    //número de ancestros, contado subiendo por los padres
+    public int height(int element) throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        int node = findNode(element);
+        if (node == NULL) return 0;
+        int level = 0;
+        for (node = parent(node); node != NULL; node = parent(node)) level++;
+        return level;
+    }
+
+    @Override
+    public int height() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        return getSubtreeHeight(root);
+    }
+
+    @Override
+    public Integer min() throws TreeException {
+        return null;
+    }
+
+    @Override
+    public Integer max() throws TreeException {
+        return null;
+    }
+
+    public int totalLeaves() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        int[] leaves = new int[1];
+        forEach(PRE_ORDER, node -> {
+            if (left(node) == NULL && right(node) == NULL) leaves[0]++;
+        });
+        return leaves[0];
+    }
+
+    private static final int PRE_ORDER = 0, IN_ORDER = 1, POST_ORDER = 2;
+
+    @Override
+    public String preOrder() throws TreeException {
+        return traversal(PRE_ORDER);
+    }
+
+    @Override
+    public String inOrder() throws TreeException {
+        return traversal(IN_ORDER);
+    }
+
+    @Override
+    public String postOrder() throws TreeException {
+        return traversal(POST_ORDER);
+    }
+
+    private String traversal(int order) throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        StringBuilder result = new StringBuilder();
+        forEach(order, node -> result.append(key(node)).append(' '));
+        return result.toString().trim();
+    }
+
+    //copia inmutable de la estructura en el heap (O(n) nodos) para recorrerla con
+    //TreeVisitor o dibujarla; pensada para árboles que caben en un reporte
+    @Override
+    public TreeNodeView<Integer> root() {
+        checkOpen();
+        PersistentBTree.PostOrderCopy<Integer> copy = new PersistentBTree.PostOrderCopy<>();
+        forEach(POST_ORDER, node -> copy.add(key(node), left(node) != NULL, right(node) != NULL));
+        return copy.root();
+    }
+
+    //recorre los registros directamente, sin copiar la estructura al heap
+    @Override
+    public void walk(TreeVisitor<Integer> visitor) {
+        checkOpen();
+        WalkNode.walk(view(root), visitor);
+    }
+
+    private WalkNode<Integer> view(int node) {
+        return node == NULL ? null : new RecordView(node);
+    }
+
+    private final class RecordView extends WalkNode<Integer> {
+        private final int node;
+
+        RecordView(int node) {
+            this.node = node;
+        }
+
+        @Override
+        public Integer getData() {
+            return key(node);
+        }
+
+        @Override
+        WalkNode<Integer> leftChild() {
+            return view(left(node));
+        }
+
+        @Override
+        WalkNode<Integer> rightChild() {
+            return view(right(node));
+        }
+
+        @Override
+        public int getHeight() {
+            return getSubtreeHeight(node);
+        }
+    }
+
+    //recorrido en profundidad con una pila de registros (a lo sumo altura + 1)
+    private void forEach(int order, java.util.function.IntConsumer action) {
+        int[] stack = new int[getSubtreeHeight(root) + 2];
+        int top = 0;
+        int node = root;
+        int lastVisited = NULL;
+        while (node != NULL || top > 0) {
+            if (node != NULL) {
+                if (order == PRE_ORDER) action.accept(node);
+                stack[top++] = node;
+                node = left(node);
+                continue;
+            }
+            int peek = stack[top - 1];
+            int right = right(peek);
+            if (right == NULL || lastVisited != right) {
+                //se vuelve del subárbol izquierdo
+                if (order == IN_ORDER) action.accept(peek);
+                if (right != NULL) {
+                    node = right;
+                    continue;
+                }
+            }
+            top--;
+            if (order == POST_ORDER) action.accept(peek);
+            lastVisited = peek;
+        }
+    }
+
+    @Override
+    public String toString() {
+        String result;
+        try {
+            result = "PreOrder: "+preOrder();
+            result+= "\nInOrder: "+inOrder();
+            result+= "\nPostOrder: "+postOrder();
+
+        } catch (TreeException e) {
+            result = "Binary Tree is empty";
+        } catch (IllegalStateException e) {
+            result = "Binary Tree is closed";
+        }
+        return result;
+    }
+}
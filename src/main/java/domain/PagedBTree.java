@@ -0,0 +1,698 @@
+package domain;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+//Versión de BTree (llaves int) cuyos nodos viven en páginas de tamaño fijo de un
+//archivo. Solo cachePages páginas están en memoria a la vez, en marcos directos
+//(fuera del heap) que se reutilizan: al fallar una página se elige un marco con el
+//algoritmo CLOCK (segunda oportunidad) y, si el marco estaba modificado, se escribe
+//antes al archivo. Así la memoria usada no depende del número de nodos.
+//Un índice llave -> nodo guardado en las mismas páginas (hash lineal, encadenado por
+//los propios registros) y los enlaces al padre hacen que add, contains y remove lean
+//O(altura) páginas en lugar de recorrer todo el árbol; los recorridos usan una pila.
+//El archivo se divide en segmentos de una página de cubetas (1024) y ocho de
+//registros (1024): cubetas y registros crecen juntos y no quedan huecos.
+//La página 0 guarda el encabezado (raíz, nodos, registros usados, lista de libres,
+//cubetas) y si el archivo está limpio. flush()/close() escriben las páginas y marcan el
+//encabezado limpio; antes de escribir la primera página modificada se marca sucio, así
+//un archivo que quedó a medias por una caída se rechaza al abrirlo en vez de leerse
+//como un árbol incoherente. Los cambios posteriores al último flush() no sobreviven
+//a una caída.
+//Mismo algoritmo de inserción balanceada y de borrado que BTree y OffHeapBTree.
+public class PagedBTree implements Tree<Integer>, AutoCloseable {
+    public static final int PAGE_BYTES = 4096;
+    //registro: llave, hijo izq, hijo der, altura del subárbol, padre y siguiente en la
+    //cubeta (6 ints; se redondea a 32 bytes para que una página tenga 128 registros)
+    private static final int KEY = 0, LEFT = 4, RIGHT = 8, HEIGHT = 12, PARENT = 16, NEXT = 20;
+    private static final int RECORD_BYTES = 32;
+    private static final int PAGE_SHIFT = 7; //128 registros por página
+    private static final int PAGE_MASK = (1 << PAGE_SHIFT) - 1;
+    private static final int SEGMENT_SHIFT = 10; //1024 registros y 1024 cubetas por segmento
+    private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+    private static final int SEGMENT_PAGES = 1 + (1 << (SEGMENT_SHIFT - PAGE_SHIFT));
+    private static final int NULL = -1; //equivale a una referencia null
+    private static final int MAGIC = 0x50425432; //"PBT2"
+    private static final int HEADER_BYTES = 28;
+    private static final int CLEAN = 0, DIRTY = 1;
+
+    private final FileChannel channel;
+    //caché de páginas: marco -> página, bits de uso y de modificación
+    private final ByteBuffer[] frames;
+    private final int[] pageOfFrame;
+    private final boolean[] referenced, dirty;
+    private final java.util.Map<Integer, Integer> frameOfPage;
+    private int hand; //manecilla del reloj
+    private int usedFrames;
+    private int lastPage = NULL, lastFrame; //la última página pedida se resuelve sin buscar
+    private long hits, faults, writeBacks;
+
+    private int root = NULL;
+    private int count; //nodos en uso
+    private int allocated; //registros usados alguna vez (los libres se reciclan)
+    private int free = NULL; //lista de registros libres, enlazados por el campo LEFT
+    private int buckets = 1; //cubetas del índice en uso
+    private boolean fileDirty; //el encabezado del archivo ya dice que está sucio
+    private boolean closed;
+
+    //abre (o crea) el árbol guardado en el archivo, con a lo sumo cachePages páginas en memoria;
+    //un archivo que no se cerró limpiamente se rechaza con IOException
+    public PagedBTree(Path file, int cachePages) throws IOException {
+        if (cachePages < 1) throw new IllegalArgumentException("cachePages must be positive: " + cachePages);
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.frames = new ByteBuffer[cachePages];
+        this.pageOfFrame = new int[cachePages];
+        this.referenced = new boolean[cachePages];
+        this.dirty = new boolean[cachePages];
+        this.frameOfPage = new java.util.HashMap<>(cachePages * 4 / 3 + 1);
+        ByteBuffer memory = ByteBuffer.allocateDirect(cachePages * PAGE_BYTES);
+        for (int i = 0; i < cachePages; i++) {
+            memory.limit((i + 1) * PAGE_BYTES).position(i * PAGE_BYTES);
+            frames[i] = memory.slice().order(ByteOrder.nativeOrder());
+        }
+        try {
+            if (channel.size() > 0) readHeader();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // ---------------------------------------------- Caché de páginas
+
+    //marco que contiene la página, leyéndola del archivo si no está en memoria
+    private ByteBuffer page(int page) {
+        if (page == lastPage) {
+            referenced[lastFrame] = true;
+            hits++;
+            return frames[lastFrame];
+        }
+        Integer cached = frameOfPage.get(page);
+        int frame;
+        if (cached != null) {
+            frame = cached;
+            hits++;
+        } else {
+            frame = victim();
+            faults++;
+            load(frame, page);
+        }
+        referenced[frame] = true;
+        lastPage = page;
+        lastFrame = frame;
+        return frames[frame];
+    }
+
+    //CLOCK: da una segunda oportunidad a los marcos usados desde la última vuelta
+    private int victim() {
+        if (usedFrames < frames.length) return usedFrames++;
+        while (referenced[hand]) {
+            referenced[hand] = false;
+            hand = (hand + 1) % frames.length;
+        }
+        int frame = hand;
+        hand = (hand + 1) % frames.length;
+        if (dirty[frame]) writeBack(frame);
+        frameOfPage.remove(pageOfFrame[frame]);
+        return frame;
+    }
+
+    private void load(int frame, int page) {
+        ByteBuffer buffer = frames[frame];
+        buffer.clear();
+        try {
+            long at = (long) page * PAGE_BYTES;
+            while (buffer.hasRemaining()) {
+                int n = channel.read(buffer, at + buffer.position());
+                if (n < 0) break; //página nueva, más allá del final del archivo
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        while (buffer.hasRemaining()) buffer.put((byte) 0);
+        pageOfFrame[frame] = page;
+        dirty[frame] = false;
+        frameOfPage.put(page, frame);
+    }
+
+    private void writeBack(int frame) {
+        ByteBuffer buffer = frames[frame].duplicate();
+        buffer.clear();
+        try {
+            //el archivo deja de ser coherente con la primera página escrita
+            if (!fileDirty) {
+                writeHeader(DIRTY);
+                channel.force(false);
+                fileDirty = true;
+            }
+            long at = (long) pageOfFrame[frame] * PAGE_BYTES;
+            while (buffer.hasRemaining()) channel.write(buffer, at + buffer.position());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        dirty[frame] = false;
+        writeBacks++;
+    }
+
+    //la página 0 es el encabezado; cada segmento empieza con su página de cubetas
+    private static int segmentStart(int segment) {
+        return 1 + segment * SEGMENT_PAGES;
+    }
+
+    private static int pageOf(int node) {
+        return segmentStart(node >>> SEGMENT_SHIFT) + 1 + ((node & SEGMENT_MASK) >>> PAGE_SHIFT);
+    }
+
+    private static int offset(int node, int field) {
+        return ((node & PAGE_MASK) * RECORD_BYTES) + field;
+    }
+
+    private int field(int node, int field) {
+        return page(pageOf(node)).getInt(offset(node, field));
+    }
+
+    private void setField(int node, int field, int value) {
+        page(pageOf(node)).putInt(offset(node, field), value);
+        dirty[lastFrame] = true;
+    }
+
+    private int key(int node) { return field(node, KEY); }
+    private int left(int node) { return field(node, LEFT); }
+    private int right(int node) { return field(node, RIGHT); }
+    private int nodeHeight(int node) { return field(node, HEIGHT); }
+    private int parent(int node) { return field(node, PARENT); }
+    private int nextInBucket(int node) { return field(node, NEXT); }
+
+    private void setKey(int node, int value) { setField(node, KEY, value); }
+    private void setLeft(int node, int value) { setField(node, LEFT, value); }
+    private void setRight(int node, int value) { setField(node, RIGHT, value); }
+    private void setHeight(int node, int value) { setField(node, HEIGHT, value); }
+    private void setParent(int node, int value) { setField(node, PARENT, value); }
+    private void setNextInBucket(int node, int value) { setField(node, NEXT, value); }
+
+    private int newNode(int key, int parent) {
+        int node;
+        if (free != NULL) {
+            node = free;
+            free = left(free);
+        } else {
+            node = allocated++;
+        }
+        setKey(node, key);
+        setLeft(node, NULL);
+        setRight(node, NULL);
+        setHeight(node, 0);
+        setParent(node, parent);
+        count++;
+        link(node);
+        return node;
+    }
+
+    private void freeNode(int node) {
+        setLeft(node, free);
+        free = node;
+        count--;
+    }
+
+    private void checkOpen() {
+        if (closed) throw new IllegalStateException("Paged tree is closed");
+    }
+
+    private void readHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.nativeOrder());
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+            //lee hasta completar el encabezado
+        }
+        header.flip();
+        if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC)
+            throw new IOException("Not a paged tree file");
+        if (header.getInt() != CLEAN)
+            throw new IOException("Paged tree file was not closed cleanly");
+        root = header.getInt();
+        count = header.getInt();
+        allocated = header.getInt();
+        free = header.getInt();
+        buckets = header.getInt();
+    }
+
+    private void writeHeader(int state) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.nativeOrder());
+        header.putInt(MAGIC).putInt(state).putInt(root).putInt(count).putInt(allocated)
+                .putInt(free).putInt(buckets).flip();
+        while (header.hasRemaining()) channel.write(header, header.position());
+    }
+
+    //escribe las páginas modificadas y las fuerza al disco; recién entonces marca el
+    //encabezado limpio, con la raíz y los contadores actuales
+    public void flush() throws IOException {
+        checkOpen();
+        try {
+            for (int frame = 0; frame < usedFrames; frame++) {
+                if (dirty[frame]) writeBack(frame);
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        channel.force(false);
+        writeHeader(CLEAN);
+        channel.force(false);
+        fileDirty = false;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        try {
+            flush();
+        } finally {
+            closed = true;
+            channel.close();
+        }
+    }
+
+    // ---------------------------------------------- Contadores de la caché
+
+    public long pageFaults() {
+        return faults;
+    }
+
+    public long cacheHits() {
+        return hits;
+    }
+
+    //páginas modificadas que se escribieron al archivo al salir de la caché (o en flush)
+    public long writeBacks() {
+        return writeBacks;
+    }
+
+    public double hitRate() {
+        long accesses = hits + faults;
+        return accesses == 0 ? 0 : (double) hits / accesses;
+    }
+
+    //bytes de memoria directa usados por la caché (fijo)
+    public long cacheBytes() {
+        return (long) frames.length * PAGE_BYTES;
+    }
+
+    // ---------------------------------------------- Índice llave -> nodo
+    //hash lineal: cuando hay más nodos que cubetas se divide una sola cubeta (la que
+    //señala el puntero de división), así crecer nunca recorre todo el índice.
+    //Las cubetas guardan nodo + 1, de modo que una página nueva (en ceros) está vacía.
+
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private int bucket(int key) {
+        int h = hash(key);
+        int low = Integer.highestOneBit(buckets);
+        int bucket = h & (2 * low - 1);
+        return bucket < buckets ? bucket : h & (low - 1);
+    }
+
+    private int head(int bucket) {
+        return page(segmentStart(bucket >>> SEGMENT_SHIFT)).getInt((bucket & SEGMENT_MASK) * 4) - 1;
+    }
+
+    private void setHead(int bucket, int node) {
+        page(segmentStart(bucket >>> SEGMENT_SHIFT)).putInt((bucket & SEGMENT_MASK) * 4, node + 1);
+        dirty[lastFrame] = true;
+    }
+
+    private int findNode(int element) {
+        for (int node = head(bucket(element)); node != NULL; node = nextInBucket(node)) {
+            if (key(node) == element) return node;
+        }
+        return NULL;
+    }
+
+    private void link(int node) {
+        if (count > buckets) split();
+        int bucket = bucket(key(node));
+        setNextInBucket(node, head(bucket));
+        setHead(bucket, node);
+    }
+
+    private void unlink(int node) {
+        int bucket = bucket(key(node));
+        int next = nextInBucket(node);
+        int previous = head(bucket);
+        if (previous == node) {
+            setHead(bucket, next);
+        } else {
+            while (nextInBucket(previous) != node) previous = nextInBucket(previous);
+            setNextInBucket(previous, next);
+        }
+    }
+
+    //agrega una cubeta y reparte entre ella y su gemela los nodos de la gemela
+    private void split() {
+        int twin = buckets - Integer.highestOneBit(buckets);
+        int node = head(twin);
+        setHead(twin, NULL);
+        setHead(buckets, NULL);
+        buckets++;
+        while (node != NULL) {
+            int next = nextInBucket(node);
+            int bucket = bucket(key(node));
+            setNextInBucket(node, head(bucket));
+            setHead(bucket, node);
+            node = next;
+        }
+    }
+
+    // ---------------------------------------------- Operaciones de Tree
+    @Override
+    public int size() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        return count;
+    }
+
+    //los registros ya escritos en el archivo se reutilizan
+    @Override
+    public void clear() {
+        checkOpen();
+        root = free = NULL;
+        count = allocated = 0;
+        buckets = 1;
+        setHead(0, NULL);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        checkOpen();
+        return root==NULL;
+    }
+
+    @Override
+    public boolean contains(Integer element) throws TreeException {
+        return contains(element.intValue());
+    }
+
+    public boolean contains(int element) throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        return findNode(element) != NULL;
+    }
+
+    @Override
+    public void add(Integer element) {
+        add(element.intValue());
+    }
+
+    public void add(int element) {
+        checkOpen();
+        // Verificar si el elemento ya existe para evitar duplicados
+        if (findNode(element) != NULL) {
+            return; // No agregar duplicados
+        }
+        if (root == NULL) root = newNode(element, NULL);
+        else addBalanced(element);
+    }
+
+    // Inserción balanceada: se baja por el subárbol de menor altura hasta un lugar libre
+    // y luego se actualizan las alturas subiendo por los padres
+    private void addBalanced(int element) {
+        int node = root;
+        while (true) {
+            int left = left(node), right = right(node);
+            if (getSubtreeHeight(left) <= getSubtreeHeight(right)) {
+                if (left == NULL) {
+                    setLeft(node, newNode(element, node));
+                    break;
+                }
+                node = left;
+            } else {
+                if (right == NULL) {
+                    setRight(node, newNode(element, node));
+                    break;
+                }
+                node = right;
+            }
+        }
+        updateHeightsUpFrom(node);
+    }
+
+    private int getSubtreeHeight(int node) {
+        return node == NULL ? -1 : nodeHeight(node);
+    }
+
+    private void updateHeight(int node) {
+        setHeight(node, Math.max(getSubtreeHeight(left(node)), getSubtreeHeight(right(node))) + 1);
+    }
+
+    private void updateHeightsUpFrom(int node) {
+        for (; node != NULL; node = parent(node)) updateHeight(node);
+    }
+
+    @Override
+    public void remove(Integer element) throws TreeException {
+        remove(element.intValue());
+    }
+
+    public void remove(int element) throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        int node = findNode(element);
+        if (node == NULL) return;
+        int parent = parent(node);
+        int left = left(node), right = right(node);
+        unlink(node);
+
+        //caso 1 y 2. el nodo no tiene hijos o tiene solo uno
+        if(left==NULL || right==NULL) {
+            replaceChild(parent, node, left != NULL ? left : right);
+            freeNode(node);
+        }
+        //caso 3. el nodo tiene dos hijos: toma el valor de una hoja del subárbol derecho
+        else {
+            int leaf = right;
+            while (left(leaf) != NULL || right(leaf) != NULL) {
+                leaf = left(leaf) != NULL ? left(leaf) : right(leaf);
+            }
+            unlink(leaf);
+            setKey(node, key(leaf));
+            link(node);
+            parent = parent(leaf);
+            replaceChild(parent, leaf, NULL);
+            freeNode(leaf);
+        }
+        updateHeightsUpFrom(parent);
+    }
+
+    //cambia el hijo oldChild de parent (o la raíz, si parent es NULL) por newChild
+    private void replaceChild(int parent, int oldChild, int newChild) {
+        if (parent == NULL) root = newChild;
+        else if (left(parent) == oldChild) setLeft(parent, newChild);
+        else setRight(parent, newChild);
+        if (newChild != NULL) setParent(newChild, parent);
+    }
+
+    @Override
+    public int height(Integer element) throws TreeException {
+        return height(element.intValue());
+    }
+
+    //número de ancestros, subiendo por los padres; 0 si no existe
+    public int height(int element) throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        int node = findNode(element);
+        if (node == NULL) return 0;
+        int level = 0;
+        for (node = parent(node); node != NULL; node = parent(node)) level++;
+        return level;
+    }
+
+    @Override
+    public int height() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        return getSubtreeHeight(root);
+    }
+
+    @Override
+    public Integer min() throws TreeException {
+        return null;
+    }
+
+    @Override
+    public Integer max() throws TreeException {
+        return null;
+    }
+
+    public int totalLeaves() throws TreeException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        int[] leaves = new int[1];
+        forEach(PRE_ORDER, node -> {
+            if (left(node) == NULL && right(node) == NULL) leaves[0]++;
+        });
+        return leaves[0];
+    }
+
+    //los recorridos escriben elemento por elemento, separados por un espacio
+    private static final int PRE_ORDER = 0, IN_ORDER = 1, POST_ORDER = 2;
+
+    @Override
+    public String preOrder() throws TreeException {
+        return traversal(PRE_ORDER);
+    }
+
+    @Override
+    public String inOrder() throws TreeException {
+        return traversal(IN_ORDER);
+    }
+
+    @Override
+    public String postOrder() throws TreeException {
+        return traversal(POST_ORDER);
+    }
+
+    @Override
+    public void preOrder(Appendable out) throws TreeException, IOException {
+        traversal(PRE_ORDER, out);
+    }
+
+    @Override
+    public void inOrder(Appendable out) throws TreeException, IOException {
+        traversal(IN_ORDER, out);
+    }
+
+    @Override
+    public void postOrder(Appendable out) throws TreeException, IOException {
+        traversal(POST_ORDER, out);
+    }
+
+    private String traversal(int order) throws TreeException {
+        StringBuilder result = new StringBuilder();
+        try {
+            traversal(order, result);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); //StringBuilder no lanza IOException
+        }
+        return result.toString();
+    }
+
+    private void traversal(int order, Appendable out) throws TreeException, IOException {
+        if(isEmpty())
+            throw new TreeException("Binary Tree is empty");
+        boolean[] first = {true};
+        try {
+            forEach(order, node -> {
+                try {
+                    if (!first[0]) out.append(' ');
+                    first[0] = false;
+                    out.append(Integer.toString(key(node)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    //copia inmutable de la estructura en el heap (O(n) nodos) para recorrerla con
+    //TreeVisitor o dibujarla; pensada para árboles que caben en un reporte
+    @Override
+    public TreeNodeView<Integer> root() {
+        checkOpen();
+        PersistentBTree.PostOrderCopy<Integer> copy = new PersistentBTree.PostOrderCopy<>();
+        forEach(POST_ORDER, node -> copy.add(key(node), left(node) != NULL, right(node) != NULL));
+        return copy.root();
+    }
+
+    //recorre los registros directamente, sin copiar la estructura al heap
+    @Override
+    public void walk(TreeVisitor<Integer> visitor) {
+        checkOpen();
+        WalkNode.walk(view(root), visitor);
+    }
+
+    private WalkNode<Integer> view(int node) {
+        return node == NULL ? null : new RecordView(node);
+    }
+
+    private final class RecordView extends WalkNode<Integer> {
+        private final int node;
+
+        RecordView(int node) {
+            this.node = node;
+        }
+
+        @Override
+        public Integer getData() {
+            return key(node);
+        }
+
+        @Override
+        WalkNode<Integer> leftChild() {
+            return view(left(node));
+        }
+
+        @Override
+        WalkNode<Integer> rightChild() {
+            return view(right(node));
+        }
+
+        @Override
+        public int getHeight() {
+            return getSubtreeHeight(node);
+        }
+    }
+
+    //recorrido en profundidad con una pila de registros (a lo sumo altura + 2)
+    private void forEach(int order, java.util.function.IntConsumer action) {
+        int[] stack = new int[getSubtreeHeight(root) + 2];
+        int top = 0;
+        int node = root;
+        int lastVisited = NULL;
+        while (node != NULL || top > 0) {
+            if (node != NULL) {
+                if (order == PRE_ORDER) action.accept(node);
+                stack[top++] = node;
+                node = left(node);
+                continue;
+            }
+            int peek = stack[top - 1];
+            int right = right(peek);
+            if (right == NULL || lastVisited != right) {
+                //se vuelve del subárbol izquierdo
+                if (order == IN_ORDER) action.accept(peek);
+                if (right != NULL) {
+                    node = right;
+                    continue;
+                }
+            }
+            top--;
+            if (order == POST_ORDER) action.accept(peek);
+            lastVisited = peek;
+        }
+    }
+
+    @Override
+    public String toString() {
+        String result;
+        try {
+            result = "PreOrder: "+preOrder();
+            result+= "\nInOrder: "+inOrder();
+            result+= "\nPostOrder: "+postOrder();
+
+        } catch (TreeException e) {
+            result = "Binary Tree is empty";
+        } catch (IllegalStateException e) {
+            result = "Binary Tree is closed";
+        }
+        return result;
+    }
+}
@@ -0,0 +1,326 @@
+package domain;
+
+//Versión persistente de BTree: los nodos son inmutables y add/remove copian solo el
+//camino desde la raíz hasta el punto modificado (O(altura) nodos nuevos); el resto de
+//los subárboles se comparte con las versiones anteriores.
+//snapshot() lee una sola referencia (la raíz) y devuelve una versión independiente
+//que ya no cambia aunque este árbol siga modificándose, así que reportes y dibujos
+//pueden recorrerla sin candados ni copias.
+//Mismo algoritmo de inserción balanceada y mismos casos de borrado que BTree.
+public class PersistentBTree<T> implements Tree<T> {
+    private volatile Node<T> root;
+    private final java.util.Comparator<? super T> comparator;
+
+    static final class Node<T> implements TreeNodeView<T> {
+        final T data;
+        final Node<T> left, right;
+        final int height, size;
+
+        Node(T data, Node<T> left, Node<T> right) {
+            this.data = data;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+            this.size = (left == null ? 0 : left.size) + (right == null ? 0 : right.size) + 1;
+        }
+
+        static int height(Node<?> node) {
+            return node == null ? -1 : node.height;
+        }
+
+        //copia inmutable de la estructura que inicia en la vista dada (null si no hay raíz)
+        static <T> Node<T> copyOf(TreeNodeView<T> root) {
+            PostOrderCopy<T> copy = new PostOrderCopy<>();
+            TreeVisitor.walk(root, new TreeVisitor<T>() {
+                @Override
+                public void postOrder(TreeNodeView<T> node) {
+                    copy.add(node.getData(), node.getLeft() != null, node.getRight() != null);
+                }
+            });
+            return copy.root();
+        }
+
+        @Override
+        public T getData() {
+            return data;
+        }
+
+        @Override
+        public Node<T> getLeft() {
+            return left;
+        }
+
+        @Override
+        public Node<T> getRight() {
+            return right;
+        }
+
+        @Override
+        public int getHeight() {
+            return height;
+        }
+
+        @Override
+        public int getSize() {
+            return size;
+        }
+    }
+
+    //arma una copia inmutable de otro árbol a partir de sus nodos en postorden: los
+    //hijos de cada nodo ya están copiados en el tope de la pila
+    static final class PostOrderCopy<T> {
+        private final java.util.ArrayDeque<Node<T>> copies = new java.util.ArrayDeque<>();
+
+        void add(T data, boolean hasLeft, boolean hasRight) {
+            Node<T> right = hasRight ? copies.pop() : null;
+            Node<T> left = hasLeft ? copies.pop() : null;
+            copies.push(new Node<>(data, left, right));
+        }
+
+        //null si no se agregó ningún nodo
+        Node<T> root() {
+            return copies.peek();
+        }
+    }
+
+    //usa el orden natural de los elementos (deben ser Comparable)
+    public PersistentBTree() {
+        this(BTree.naturalOrder());
+    }
+
+    public PersistentBTree(java.util.Comparator<? super T> comparator) {
+        this(comparator, null);
+    }
+
+    private PersistentBTree(java.util.Comparator<? super T> comparator, Node<T> root) {
+        this.comparator = java.util.Objects.requireNonNull(comparator);
+        this.root = root;
+    }
+
+    //versión actual del árbol; los cambios posteriores de cualquiera de los dos no afectan al otro
+    public PersistentBTree<T> snapshot() {
+        return new PersistentBTree<>(comparator, root);
+    }
+
+    @Override
+    public TreeNodeView<T> root() {
+        return root;
+    }
+
+    @Override
+    public int size() throws TreeException {
+        Node<T> current = root;
+        if(current == null)
+            throw new TreeException("Binary Tree is empty");
+        return current.size;
+    }
+
+    //los escritores se serializan entre sí; los lectores nunca esperan
+    @Override
+    public synchronized void clear() {
+        root = null;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    @Override
+    public boolean contains(T element) throws TreeException {
+        Node<T> current = root;
+        if(current == null)
+            throw new TreeException("Binary Tree is empty");
+        return pathTo(current, element) != null;
+    }
+
+    @Override
+    public synchronized void add(T element) {
+        Node<T> current = root;
+        if (current == null) {
+            root = new Node<>(element, null, null);
+            return;
+        }
+        // Verificar si el elemento ya existe para evitar duplicados
+        if (pathTo(current, element) != null) return;
+
+        // Inserción balanceada: se baja por el subárbol de menor altura hasta un lugar libre
+        Node<T>[] path = newPath(current.height + 1);
+        int depth = 0;
+        Node<T> node = current;
+        while (node != null) {
+            path[depth++] = node;
+            node = Node.height(node.left) <= Node.height(node.right) ? node.left : node.right;
+        }
+        root = copyPath(path, depth, new Node<>(element, null, null));
+    }
+
+    @Override
+    public synchronized void remove(T element) throws TreeException {
+        Node<T> current = root;
+        if(current == null)
+            throw new TreeException("Binary Tree is empty");
+        java.util.ArrayDeque<Node<T>> found = pathTo(current, element);
+        if (found == null) return;
+
+        Node<T> node = found.pop();
+        Node<T>[] path = newPath(found.size());
+        int depth = 0;
+        for (java.util.Iterator<Node<T>> ancestors = found.descendingIterator(); ancestors.hasNext(); ) {
+            path[depth++] = ancestors.next();
+        }
+
+        Node<T> replacement;
+        //caso 1. es una hoja
+        if (node.left == null && node.right == null) replacement = null;
+        //caso 2. tiene un solo hijo: el hijo (compartido) ocupa su lugar
+        else if (node.left == null || node.right == null) replacement = node.left != null ? node.left : node.right;
+        //caso 3. tiene dos hijos: toma el valor de una hoja del subárbol derecho
+        else {
+            Node<T>[] leafPath = newPath(node.right.height + 1);
+            int leafDepth = 0;
+            Node<T> leaf = node.right;
+            while (leaf.left != null || leaf.right != null) {
+                leafPath[leafDepth++] = leaf;
+                leaf = leaf.left != null ? leaf.left : leaf.right;
+            }
+            Node<T> right = leafDepth == 0 ? null : copyPath(leafPath, leafDepth, leaf, null);
+            replacement = new Node<>(leaf.data, node.left, right);
+        }
+        root = depth == 0 ? replacement : copyPath(path, depth, node, replacement);
+    }
+
+    //no existen arreglos genéricos; el arreglo solo guarda nodos de este árbol
+    @SuppressWarnings("unchecked")
+    private static <T> Node<T>[] newPath(int length) {
+        return (Node<T>[]) new Node[length];
+    }
+
+    //copia el camino path[0..depth) colgando el nuevo nodo en el lugar libre del último
+    //(a la izquierda si el último eligió ese lado al insertar)
+    private Node<T> copyPath(Node<T>[] path, int depth, Node<T> leaf) {
+        Node<T> last = path[depth - 1];
+        boolean left = Node.height(last.left) <= Node.height(last.right);
+        Node<T> child = left ? new Node<>(last.data, leaf, last.right) : new Node<>(last.data, last.left, leaf);
+        return copyPath(path, depth - 1, last, child);
+    }
+
+    //copia el camino path[0..depth) reemplazando, bajo path[depth - 1], al hijo oldChild
+    //por newChild; devuelve la nueva raíz del camino
+    private Node<T> copyPath(Node<T>[] path, int depth, Node<T> oldChild, Node<T> newChild) {
+        for (int i = depth - 1; i >= 0; i--) {
+            Node<T> node = path[i];
+            newChild = node.left == oldChild
+                    ? new Node<>(node.data, newChild, node.right)
+                    : new Node<>(node.data, node.left, newChild);
+            oldChild = node;
+        }
+        return newChild;
+    }
+
+    //camino desde la raíz hasta el primer nodo (en preorden) con el elemento, con ese
+    //nodo en el tope de la pila; null si no existe
+    private java.util.ArrayDeque<Node<T>> pathTo(Node<T> from, T element) {
+        java.util.ArrayDeque<Node<T>> path = new java.util.ArrayDeque<>();
+        Node<T> node = from;
+        Node<T> lastVisited = null;
+
+        while (node != null || !path.isEmpty()) {
+            if (node != null) {
+                path.push(node);
+                if (comparator.compare(node.data, element) == 0) return path;
+                node = node.left;
+            } else {
+                Node<T> top = path.peek();
+                if (top.right != null && lastVisited != top.right) {
+                    node = top.right;
+                } else {
+                    lastVisited = path.pop();
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public int height(T element) throws TreeException {
+        Node<T> current = root;
+        if(current == null)
+            throw new TreeException("Binary Tree is empty");
+        java.util.ArrayDeque<Node<T>> path = pathTo(current, element);
+        return path == null ? 0 : path.size() - 1;
+    }
+
+    @Override
+    public int height() throws TreeException {
+        Node<T> current = root;
+        if(current == null)
+            throw new TreeException("Binary Tree is empty");
+        return current.height;
+    }
+
+    @Override
+    public T min() throws TreeException {
+        return null;
+    }
+
+    @Override
+    public T max() throws TreeException {
+        return null;
+    }
+
+    @Override
+    public String preOrder() throws TreeException {
+        return traversal(0);
+    }
+
+    @Override
+    public String inOrder() throws TreeException {
+        return traversal(1);
+    }
+
+    @Override
+    public String postOrder() throws TreeException {
+        return traversal(2);
+    }
+
+    //0 = preorden, 1 = inorden, 2 = postorden; recorre una sola versión de la raíz
+    private String traversal(int order) throws TreeException {
+        Node<T> current = root;
+        if(current == null)
+            throw new TreeException("Binary Tree is empty");
+        StringBuilder result = new StringBuilder();
+        TreeVisitor.walk(current, new TreeVisitor<T>() {
+            @Override
+            public void preOrder(TreeNodeView<T> node, TreeNodeView<T> parent) {
+                if (order == 0) result.append(node.getData()).append(' ');
+            }
+
+            @Override
+            public void inOrder(TreeNodeView<T> node) {
+                if (order == 1) result.append(node.getData()).append(' ');
+            }
+
+            @Override
+            public void postOrder(TreeNodeView<T> node) {
+                if (order == 2) result.append(node.getData()).append(' ');
+            }
+        });
+        return result.toString().trim();
+    }
+
+    @Override
+    public String toString() {
+        PersistentBTree<T> version = snapshot();
+        String result;
+        try {
+            result = "PreOrder: "+version.preOrder();
+            result+= "\nInOrder: "+version.inOrder();
+            result+= "\nPostOrder: "+version.postOrder();
+
+        } catch (TreeException e) {
+            result = "Binary Tree is empty";
+        }
+        return result;
+    }
+}
@@ -1,9 +1,9 @@
 package domain;
 
-public interface Tree {
+public interface Tree<T> {
     //devuelve el número de elementos en el árbol
     public int size() throws TreeException;
-    //private int size(BTreeNode nodo)
+    //private int size(BTreeNode<T> nodo)
 
     //anula el árbol
     public void clear();
@@ -12,49 +12,75 @@ public interface Tree {
     public boolean isEmpty();
 
     //true si el elemento existe en el árbol
-    public boolean contains(Object element) throws TreeException;
-    //private boolean binarySearch(BTreeNode node, Object element)
+    public boolean contains(T element) throws TreeException;
+    //private boolean binarySearch(BTreeNode<T> node, T element)
 
     //inserta un elemento en el árbol
-    public void add (Object element);
-    //private BtreeNode add(BtreeNode node, Object element)
+    public void add (T element);
+    //private BTreeNode<T> add(BTreeNode<T> node, T element)
 
     //suprime un elemento del árbol
     //Caso 1. El nodo a suprimir no tiene hijos
     //Caso 2. El nodo a suprimir solo tiene un hijo
     //Caso 3. El nodo a suprimir tiene dos hijos
-    public void remove(Object element) throws TreeException;
-    //private BTreeNode remove(BTreeNode node, Object element)
+    public void remove(T element) throws TreeException;
+    //private BTreeNode<T> remove(BTreeNode<T> node, T element)
 
     //devuelve la altura de un nodo (el número de ancestros)
-    public int height(Object element) throws TreeException;
-    //private int height(BTreeNode node, Object element)
+    public int height(T element) throws TreeException;
+    //private int height(BTreeNode<T> node, T element)
 
     //devuelve la altura del árbol (altura máxima de la raíz a
     //cualquier hoja del árbol)
     public int height() throws TreeException;
-    //private int height(BTreeNode node)
+    //private int height(BTreeNode<T> node)
 
     //devuelve el valor mínimo contenido en el árbol
-    public Object min() throws TreeException;
-    //private Object min(BTreeNode node)
+    public T min() throws TreeException;
+    //private T min(BTreeNode<T> node)
 
     //devuelve el valor máximo contenido en el árbol
-    public Object max() throws TreeException;
-    //private Object max(BTreeNode node)
+    public T max() throws TreeException;
+    //private T max(BTreeNode<T> node)
 
     //recorre el árbol de la forma: nodo-hijo izq-hijo der,
     //para mostrar todos los elementos existentes
     public String preOrder() throws TreeException;
-    //private String preOrder(BTreeNode node)
+    //private String preOrder(BTreeNode<T> node)
 
     //recorre el árbol de la forma: hijo izq-nodo-hijo der,
     //para mostrar todos los elementos existentes
     public String inOrder() throws TreeException;
-    //private String inOrder(BTreeNode node)
+    //private String inOrder(BTreeNode<T> node)
 
     //recorre el árbol de la forma: hijo izq-hijo der-nodo,
     //para mostrar todos los elementos existentes
     public String postOrder() throws TreeException;
-    //private String postOrder(BTreeNode node)
+    //private String postOrder(BTreeNode<T> node)
+
+    //escriben el recorrido en el destino (Writer, StringBuilder, ...) en lugar
+    //de devolverlo como String; las implementaciones pueden escribir elemento
+    //por elemento para no armar todo el texto en memoria
+    public default void preOrder(java.lang.Appendable out) throws TreeException, java.io.IOException {
+        out.append(preOrder());
+    }
+
+    public default void inOrder(java.lang.Appendable out) throws TreeException, java.io.IOException {
+        out.append(inOrder());
+    }
+
+    public default void postOrder(java.lang.Appendable out) throws TreeException, java.io.IOException {
+        out.append(postOrder());
+    }
+
+    //raíz de solo lectura para recorrer la estructura desde fuera del paquete;
+    //null si el árbol está vacío
+    public TreeNodeView<T> root();
+
+    //recorre la estructura una sola vez entregando cada nodo al visitante;
+    //las implementaciones que no guardan nodos en el heap pueden sobrescribirlo
+    //para no copiar la estructura con root()
+    public default void walk(TreeVisitor<T> visitor) {
+        TreeVisitor.walk(root(), visitor);
+    }
 }
@@ -0,0 +1,18 @@
+package domain;
+
+//Vista de solo lectura de un nodo: permite a código fuera de domain recorrer la
+//estructura del árbol sin reflexión y sin poder modificarla.
+public interface TreeNodeView<T> {
+    T getData();
+
+    //null si no tiene ese hijo
+    TreeNodeView<T> getLeft();
+
+    TreeNodeView<T> getRight();
+
+    //altura del subárbol que inicia en el nodo (hoja = 0)
+    int getHeight();
+
+    //número de nodos del subárbol que inicia en el nodo
+    int getSize();
+}
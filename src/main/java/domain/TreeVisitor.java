@@ -0,0 +1,80 @@
+package domain;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+//Visitante de la estructura de un árbol. Tree.walk hace un solo recorrido en
+//profundidad (con pila explícita) y entrega cada nodo tres veces: en preorden,
+//en inorden y en postorden. Varios análisis se combinan en un mismo recorrido
+//con TreeVisitor.fuse(...).
+public interface TreeVisitor<T> {
+
+    //primera visita del nodo; parent es null para la raíz
+    default void preOrder(TreeNodeView<T> node, TreeNodeView<T> parent) {
+    }
+
+    //ya se recorrió el subárbol izquierdo del nodo
+    default void inOrder(TreeNodeView<T> node) {
+    }
+
+    //ya se recorrieron los dos subárboles del nodo
+    default void postOrder(TreeNodeView<T> node) {
+    }
+
+    //un visitante que reenvía cada evento a todos los dados, en ese orden
+    @SafeVarargs
+    static <T> TreeVisitor<T> fuse(TreeVisitor<T>... visitors) {
+        return fuse(Arrays.asList(visitors));
+    }
+
+    static <T> TreeVisitor<T> fuse(List<? extends TreeVisitor<T>> visitors) {
+        List<TreeVisitor<T>> all = new ArrayList<>(visitors);
+        return new TreeVisitor<T>() {
+            @Override
+            public void preOrder(TreeNodeView<T> node, TreeNodeView<T> parent) {
+                for (TreeVisitor<T> visitor : all) visitor.preOrder(node, parent);
+            }
+
+            @Override
+            public void inOrder(TreeNodeView<T> node) {
+                for (TreeVisitor<T> visitor : all) visitor.inOrder(node);
+            }
+
+            @Override
+            public void postOrder(TreeNodeView<T> node) {
+                for (TreeVisitor<T> visitor : all) visitor.postOrder(node);
+            }
+        };
+    }
+
+    //recorrido en profundidad desde la vista dada, sin recursión
+    static <T> void walk(TreeNodeView<T> root, TreeVisitor<T> visitor) {
+        ArrayDeque<TreeNodeView<T>> stack = new ArrayDeque<>();
+        TreeNodeView<T> node = root;
+        TreeNodeView<T> lastVisited = null;
+
+        while (node != null || !stack.isEmpty()) {
+            if (node != null) {
+                visitor.preOrder(node, stack.peek());
+                stack.push(node);
+                node = node.getLeft();
+                continue;
+            }
+            TreeNodeView<T> top = stack.peek();
+            TreeNodeView<T> right = top.getRight();
+            if (right == null || lastVisited != right) {
+                //se vuelve del subárbol izquierdo
+                visitor.inOrder(top);
+                if (right != null) {
+                    node = right;
+                    continue;
+                }
+            }
+            stack.pop();
+            visitor.postOrder(top);
+            lastVisited = top;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package domain;
+
+import java.util.ArrayDeque;
+
+//Vista de un nodo que no es un objeto del heap (un registro, una página o una posición
+//de arreglo), creada mientras Tree.walk recorre la estructura. Cada vista guarda las
+//de sus hijos para que getLeft()/getRight() devuelvan siempre el mismo objeto, como
+//espera TreeVisitor.walk, y las suelta al terminar su postorden: el recorrido retiene
+//solo el camino actual y los hijos de sus nodos (O(altura)) en lugar de copiar la
+//estructura completa como root()
+abstract class WalkNode<T> implements TreeNodeView<T> {
+    private WalkNode<T> left, right;
+    private boolean leftRead, rightRead;
+
+    //vista nueva del hijo, o null si no lo tiene
+    abstract WalkNode<T> leftChild();
+
+    abstract WalkNode<T> rightChild();
+
+    @Override
+    public final WalkNode<T> getLeft() {
+        if (!leftRead) {
+            left = leftChild();
+            leftRead = true;
+        }
+        return left;
+    }
+
+    @Override
+    public final WalkNode<T> getRight() {
+        if (!rightRead) {
+            right = rightChild();
+            rightRead = true;
+        }
+        return right;
+    }
+
+    //estas estructuras no guardan el tamaño del subárbol: se cuenta al pedirlo
+    @Override
+    public int getSize() {
+        ArrayDeque<WalkNode<T>> pending = new ArrayDeque<>();
+        pending.push(this);
+        int size = 0;
+        while (!pending.isEmpty()) {
+            WalkNode<T> node = pending.pop();
+            size++;
+            WalkNode<T> child = node.leftChild();
+            if (child != null) pending.push(child);
+            child = node.rightChild();
+            if (child != null) pending.push(child);
+        }
+        return size;
+    }
+
+    private void release() {
+        left = right = null;
+        leftRead = rightRead = false;
+    }
+
+    static <T> void walk(WalkNode<T> root, TreeVisitor<T> visitor) {
+        TreeVisitor.walk(root, new TreeVisitor<T>() {
+            @Override
+            public void preOrder(TreeNodeView<T> node, TreeNodeView<T> parent) {
+                visitor.preOrder(node, parent);
+            }
+
+            @Override
+            public void inOrder(TreeNodeView<T> node) {
+                visitor.inOrder(node);
+            }
+
+            @Override
+            public void postOrder(TreeNodeView<T> node) {
+                visitor.postOrder(node);
+                //el recorrido ya no vuelve a bajar por este nodo
+                ((WalkNode<T>) node).release();
+            }
+        });
+    }
+}
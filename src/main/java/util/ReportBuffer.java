@@ -0,0 +1,62 @@
+package util;
+
+import java.io.IOException;
+
+/**
+ * Búfer de texto con un presupuesto máximo de caracteres. Lo que no cabe se descarta,
+ * así una sección de reporte nunca ocupa más memoria que su presupuesto.
+ */
+public final class ReportBuffer implements Appendable {
+    private final StringBuilder text = new StringBuilder();
+    private final int budget;
+    private boolean truncated;
+
+    public ReportBuffer(int budget) {
+        if (budget < 0) throw new IllegalArgumentException("Negative budget: " + budget);
+        this.budget = budget;
+    }
+
+    //quien escribe puede consultar esto para no formatear texto que se descartaría
+    public boolean isFull() {
+        if (text.length() < budget) return false;
+        truncated = true;
+        return true;
+    }
+
+    @Override
+    public ReportBuffer append(CharSequence csq) {
+        if (csq == null) csq = "null";
+        return append(csq, 0, csq.length());
+    }
+
+    @Override
+    public ReportBuffer append(CharSequence csq, int start, int end) {
+        if (csq == null) csq = "null";
+        int room = budget - text.length();
+        if (end - start <= room) {
+            text.append(csq, start, end);
+        } else {
+            if (room > 0) text.append(csq, start, start + room);
+            truncated = true;
+        }
+        return this;
+    }
+
+    @Override
+    public ReportBuffer append(char c) {
+        if (!isFull()) text.append(c);
+        return this;
+    }
+
+    public ReportBuffer append(Object value) {
+        return append(String.valueOf(value));
+    }
+
+    //copia el contenido y, si algo no cupo, una nota de que la sección se recortó
+    public void writeTo(Appendable out) throws IOException {
+        out.append(text);
+        if (truncated) {
+            out.append("\n... [sección truncada a ").append(String.valueOf(budget)).append(" caracteres]\n");
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package util;
+
+import domain.TreeVisitor;
+
+import java.io.IOException;
+
+/**
+ * Sección de un {@link TreeReport}: un visitante que recibe los eventos del recorrido
+ * compartido por todas las secciones y al final escribe su texto con
+ * {@link #finish(Appendable)}, en el orden del reporte.
+ */
+public interface ReportSection<T> extends TreeVisitor<T> {
+
+    /** Escribe el texto de la sección. */
+    void finish(Appendable out) throws IOException;
+}
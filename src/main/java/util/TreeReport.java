@@ -0,0 +1,257 @@
+package util;
+
+import domain.Tree;
+import domain.TreeNodeView;
+import domain.TreeVisitor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Generador de reportes en un solo recorrido: {@link Tree#walk} entrega cada nodo
+ * (en pre, in y postorden) a todas las secciones a la vez; cada sección escribe en
+ * su propio {@link ReportBuffer} y al final las secciones se copian, en orden, al destino.
+ * Como todas las secciones avanzan a la vez, ninguna puede escribir directo en el destino
+ * antes de que termine el recorrido: el presupuesto de caracteres por sección es lo que
+ * acota la memoria usada por el reporte (a lo sumo 10 búferes del presupuesto).
+ */
+public final class TreeReport<T> {
+    /** Presupuesto sin límite práctico (el reporte completo); la memoria crece con el árbol. */
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    /**
+     * Presupuesto por omisión: 1M caracteres por búfer. Alcanza para el texto completo de
+     * árboles de unos 100 000 nodos; en árboles mayores las listas largas se recortan.
+     */
+    public static final int DEFAULT_SECTION_BUDGET = 1 << 20;
+
+    private final List<ReportSection<T>> sections;
+
+    public TreeReport(List<ReportSection<T>> sections) {
+        this.sections = new ArrayList<>(sections);
+    }
+
+    @SafeVarargs
+    public TreeReport(ReportSection<T>... sections) {
+        this(Arrays.asList(sections));
+    }
+
+    /**
+     * Las mismas secciones que TreeUtils.generateCompleteReport, cada una con el presupuesto dado.
+     * Como las secciones guardan estado, se crea un reporte nuevo para cada árbol.
+     */
+    public static TreeReport<Integer> complete(int sectionBudget) {
+        return new TreeReport<>(statistics(), balance(), traversals(sectionBudget),
+                leaves(sectionBudget), nodes1Child(sectionBudget), nodes2Children(sectionBudget),
+                nodesWithChildren(sectionBudget), structure(sectionBudget));
+    }
+
+    /** Recorre el árbol una vez y escribe todas las secciones en out. */
+    public void write(Tree<T> tree, Appendable out) throws IOException {
+        tree.walk(TreeVisitor.fuse(sections));
+        for (ReportSection<T> section : sections) section.finish(out);
+    }
+
+    // ---------------------------------------------- Secciones estándar
+
+    public static ReportSection<Integer> statistics() {
+        return new ReportSection<Integer>() {
+            private final TreeStats.Accumulator stats = new TreeStats.Accumulator();
+
+            @Override
+            public void preOrder(TreeNodeView<Integer> node, TreeNodeView<Integer> parent) {
+                stats.preOrder(node, parent);
+            }
+
+            @Override
+            public void finish(Appendable out) throws IOException {
+                out.append(TreeUtils.formatStatistics(stats.result())).append("\n");
+            }
+        };
+    }
+
+    public static <T> ReportSection<T> balance() {
+        return new ReportSection<T>() {
+            private boolean balanced = true;
+
+            @Override
+            public void preOrder(TreeNodeView<T> node, TreeNodeView<T> parent) {
+                int leftHeight = node.getLeft() == null ? -1 : node.getLeft().getHeight();
+                int rightHeight = node.getRight() == null ? -1 : node.getRight().getHeight();
+                if (Math.abs(leftHeight - rightHeight) > 1) balanced = false;
+            }
+
+            @Override
+            public void finish(Appendable out) throws IOException {
+                out.append("¿Está balanceado?: ").append(balanced ? "SÍ" : "NO").append("\n\n");
+            }
+        };
+    }
+
+    public static <T> ReportSection<T> traversals(int budget) {
+        return new ReportSection<T>() {
+            private final ReportBuffer preOrder = new ReportBuffer(budget);
+            private final ReportBuffer inOrder = new ReportBuffer(budget);
+            private final ReportBuffer postOrder = new ReportBuffer(budget);
+
+            @Override
+            public void preOrder(TreeNodeView<T> node, TreeNodeView<T> parent) {
+                appendElement(preOrder, node);
+            }
+
+            @Override
+            public void inOrder(TreeNodeView<T> node) {
+                appendElement(inOrder, node);
+            }
+
+            @Override
+            public void postOrder(TreeNodeView<T> node) {
+                appendElement(postOrder, node);
+            }
+
+            private void appendElement(ReportBuffer buffer, TreeNodeView<T> node) {
+                if (buffer.isFull()) return;
+                buffer.append(node.getData()).append(' ');
+            }
+
+            @Override
+            public void finish(Appendable out) throws IOException {
+                out.append("=== RECORRIDOS ===\n");
+                writeLine(out, "PreOrder:  ", preOrder);
+                writeLine(out, "InOrder:   ", inOrder);
+                writeLine(out, "PostOrder: ", postOrder);
+                out.append("\n");
+            }
+
+            private void writeLine(Appendable out, String title, ReportBuffer buffer) throws IOException {
+                out.append(title);
+                StringBuilder line = new StringBuilder();
+                buffer.writeTo(line);
+                //quita el espacio después del último elemento, como Tree.preOrder()
+                if (line.length() > 0 && line.charAt(line.length() - 1) == ' ') line.setLength(line.length() - 1);
+                out.append(line).append("\n");
+            }
+        };
+    }
+
+    //mismo texto que BTree.printLeaves() (incluida la coma final)
+    public static <T> ReportSection<T> leaves(int budget) {
+        return new ReportSection<T>() {
+            private final ReportBuffer leaves = new ReportBuffer(budget);
+
+            @Override
+            public void preOrder(TreeNodeView<T> node, TreeNodeView<T> parent) {
+                if (node.getLeft() == null && node.getRight() == null && !leaves.isFull()) {
+                    leaves.append(node.getData()).append(", ");
+                }
+            }
+
+            @Override
+            public void finish(Appendable out) throws IOException {
+                out.append("=== INFORMACIÓN DETALLADA DE NODOS ===\n");
+                StringBuilder line = new StringBuilder();
+                leaves.writeTo(line);
+                out.append("Binary tree - leaves: ").append(line.toString().trim()).append("\n\n");
+            }
+        };
+    }
+
+    public static <T> ReportSection<T> nodes1Child(int budget) {
+        return new NodeListSection<T>("Binary tree - nodes 1 child\n", budget) {
+            @Override
+            void describe(TreeNodeView<T> node, ReportBuffer lines) {
+                if ((node.getLeft() != null) == (node.getRight() != null)) return;
+                lines.append("Node: ").append(node.getData());
+                if (node.getLeft() != null) lines.append(", left son: ").append(node.getLeft().getData());
+                if (node.getRight() != null) lines.append(", right son: ").append(node.getRight().getData());
+                lines.append("\n");
+            }
+        };
+    }
+
+    public static <T> ReportSection<T> nodes2Children(int budget) {
+        return new NodeListSection<T>("Binary tree - nodes 2 children\n", budget) {
+            @Override
+            void describe(TreeNodeView<T> node, ReportBuffer lines) {
+                if (node.getLeft() == null || node.getRight() == null) return;
+                lines.append("Node: ").append(node.getData()).append(", left son: ").append(node.getLeft().getData())
+                        .append(", right son: ").append(node.getRight().getData()).append("\n");
+            }
+        };
+    }
+
+    public static <T> ReportSection<T> nodesWithChildren(int budget) {
+        return new NodeListSection<T>("Binary tree - nodes with children\n", budget) {
+            @Override
+            void describe(TreeNodeView<T> node, ReportBuffer lines) {
+                if (node.getLeft() == null && node.getRight() == null) return;
+                lines.append("Node: ").append(node.getData()).append(", children: ");
+                if (node.getLeft() != null && node.getRight() != null) {
+                    lines.append(node.getLeft().getData()).append(", ").append(node.getRight().getData());
+                } else if (node.getLeft() != null) {
+                    lines.append("left son: ").append(node.getLeft().getData());
+                } else {
+                    lines.append("right son: ").append(node.getRight().getData());
+                }
+                lines.append("\n");
+            }
+        };
+    }
+
+    //mismo dibujo que TreeUtils.treeToString(); el prefijo crece y se recorta con la profundidad
+    public static <T> ReportSection<T> structure(int budget) {
+        return new ReportSection<T>() {
+            private final ReportBuffer lines = new ReportBuffer(budget);
+            private final StringBuilder prefix = new StringBuilder();
+
+            @Override
+            public void preOrder(TreeNodeView<T> node, TreeNodeView<T> parent) {
+                boolean isLast = parent == null || parent.getRight() == null || parent.getRight() == node;
+                if (!lines.isFull()) {
+                    lines.append(prefix).append(isLast ? "└── " : "├── ").append(node.getData()).append("\n");
+                }
+                prefix.append(isLast ? "    " : "│   ");
+            }
+
+            @Override
+            public void postOrder(TreeNodeView<T> node) {
+                prefix.setLength(prefix.length() - 4);
+            }
+
+            @Override
+            public void finish(Appendable out) throws IOException {
+                out.append("\n=== ESTRUCTURA VISUAL ===\n");
+                out.append("Estructura del Árbol:\n");
+                out.append("====================\n");
+                lines.writeTo(out);
+            }
+        };
+    }
+
+    //sección que lista los nodos (en preorden) que cumplen una condición
+    private abstract static class NodeListSection<T> implements ReportSection<T> {
+        private final String title;
+        private final ReportBuffer lines;
+
+        NodeListSection(String title, int budget) {
+            this.title = title;
+            this.lines = new ReportBuffer(budget);
+        }
+
+        abstract void describe(TreeNodeView<T> node, ReportBuffer lines);
+
+        @Override
+        public void preOrder(TreeNodeView<T> node, TreeNodeView<T> parent) {
+            if (!lines.isFull()) describe(node, lines);
+        }
+
+        @Override
+        public void finish(Appendable out) throws IOException {
+            out.append(title);
+            lines.writeTo(out);
+            out.append("\n");
+        }
+    }
+}
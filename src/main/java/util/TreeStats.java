@@ -0,0 +1,122 @@
+package util;
+
+/**
+ * Estadísticas de un árbol de enteros, calculadas en un solo recorrido
+ * por {@link TreeUtils#collectStatistics(domain.Tree)}.
+ */
+public final class TreeStats {
+    public static final TreeStats EMPTY = new TreeStats(0, -1, 0, 0, 0, 0, 0, 0L);
+
+    private final int count;
+    private final int height;
+    private final int leaves;
+    private final int oneChild;
+    private final int twoChildren;
+    private final int min;
+    private final int max;
+    private final long sum;
+
+    TreeStats(int count, int height, int leaves, int oneChild, int twoChildren, int min, int max, long sum) {
+        this.count = count;
+        this.height = height;
+        this.leaves = leaves;
+        this.oneChild = oneChild;
+        this.twoChildren = twoChildren;
+        this.min = min;
+        this.max = max;
+        this.sum = sum;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    /** Altura del árbol (-1 si está vacío). */
+    public int getHeight() {
+        return height;
+    }
+
+    public int getLeaves() {
+        return leaves;
+    }
+
+    public int getOneChild() {
+        return oneChild;
+    }
+
+    public int getTwoChildren() {
+        return twoChildren;
+    }
+
+    /** Valor mínimo (0 si el árbol está vacío). */
+    public int getMin() {
+        return min;
+    }
+
+    /** Valor máximo (0 si el árbol está vacío). */
+    public int getMax() {
+        return max;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public double getAverage() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TreeStats)) return false;
+        TreeStats other = (TreeStats) o;
+        return count == other.count && height == other.height && leaves == other.leaves
+                && oneChild == other.oneChild && twoChildren == other.twoChildren
+                && min == other.min && max == other.max && sum == other.sum;
+    }
+
+    @Override
+    public int hashCode() {
+        return java.util.Objects.hash(count, height, leaves, oneChild, twoChildren, min, max, sum);
+    }
+
+    @Override
+    public String toString() {
+        return "TreeStats[count=" + count + ", height=" + height + ", leaves=" + leaves
+                + ", oneChild=" + oneChild + ", twoChildren=" + twoChildren
+                + ", min=" + min + ", max=" + max + ", sum=" + sum + "]";
+    }
+
+    //acumula nodo por nodo en variables primitivas; como es un visitante, puede
+    //combinarse con otros análisis en el mismo recorrido (TreeVisitor.fuse)
+    static final class Accumulator implements domain.TreeVisitor<Integer> {
+        private int count, height, leaves, oneChild, twoChildren;
+        private int min = Integer.MAX_VALUE, max = Integer.MIN_VALUE;
+        private long sum;
+
+        @Override
+        public void preOrder(domain.TreeNodeView<Integer> node, domain.TreeNodeView<Integer> parent) {
+            int value = node.getData();
+            count++;
+            sum += value;
+            if (value < min) min = value;
+            if (value > max) max = value;
+            if (node.getHeight() > height) height = node.getHeight();
+
+            boolean left = node.getLeft() != null, right = node.getRight() != null;
+            if (left && right) twoChildren++;
+            else if (left || right) oneChild++;
+            else leaves++;
+        }
+
+        TreeStats result() {
+            if (count == 0) return EMPTY;
+            return new TreeStats(count, height, leaves, oneChild, twoChildren, min, max, sum);
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package util;
 
 import domain.BTree;
-import domain.BTreeNode;
-import domain.TreeException;
+import domain.Tree;
+import domain.TreeNodeView;
 
-import java.lang.reflect.Field;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Clase utilitaria con métodos adicionales para trabajar con árboles binarios
@@ -16,13 +19,13 @@ public class TreeUtils {
     /**
      * Convierte un árbol binario a una representación textual con estructura visual
      */
-    public static String treeToString(BTree tree) {
+    public static String treeToString(Tree<?> tree) {
         try {
             if (tree.isEmpty()) {
                 return "Árbol vacío";
             }
 
-            BTreeNode root = getRoot(tree);
+            TreeNodeView<?> root = tree.root();
             StringBuilder sb = new StringBuilder();
             sb.append("Estructura del Árbol:\n");
             sb.append("====================\n");
@@ -34,19 +37,35 @@ public class TreeUtils {
         }
     }
 
-    private static void printTree(BTreeNode node, String prefix, boolean isLast, StringBuilder sb) {
-        if (node != null) {
-            sb.append(prefix);
-            sb.append(isLast ? "└── " : "├── ");
-            sb.append(node.data).append("\n");
-
-            if (node.left != null || node.right != null) {
-                if (node.left != null) {
-                    printTree(node.left, prefix + (isLast ? "    " : "│   "), node.right == null, sb);
-                }
-                if (node.right != null) {
-                    printTree(node.right, prefix + (isLast ? "    " : "│   "), true, sb);
-                }
+    private static void printTree(TreeNodeView<?> root, String prefix, boolean isLast, StringBuilder sb) {
+        // pilas paralelas en lugar de recursión: nodo, prefijo y si es el último hijo
+        ArrayDeque<TreeNodeView<?>> nodes = new ArrayDeque<>();
+        ArrayDeque<String> prefixes = new ArrayDeque<>();
+        ArrayDeque<Boolean> lasts = new ArrayDeque<>();
+        if (root != null) {
+            nodes.push(root);
+            prefixes.push(prefix);
+            lasts.push(isLast);
+        }
+
+        while (!nodes.isEmpty()) {
+            TreeNodeView<?> node = nodes.pop();
+            String nodePrefix = prefixes.pop();
+            boolean nodeIsLast = lasts.pop();
+            sb.append(nodePrefix);
+            sb.append(nodeIsLast ? "└── " : "├── ");
+            sb.append(node.getData()).append("\n");
+
+            String childPrefix = nodePrefix + (nodeIsLast ? "    " : "│   ");
+            if (node.getRight() != null) {
+                nodes.push(node.getRight());
+                prefixes.push(childPrefix);
+                lasts.push(true);
+            }
+            if (node.getLeft() != null) {
+                nodes.push(node.getLeft());
+                prefixes.push(childPrefix);
+                lasts.push(node.getRight() == null);
             }
         }
     }
@@ -54,12 +73,11 @@ public class TreeUtils {
     /**
      * Obtiene todos los elementos del árbol en forma de lista
      */
-    public static List<Integer> getAllElements(BTree tree) {
+    public static List<Integer> getAllElements(BTree<Integer> tree) {
         List<Integer> elements = new ArrayList<>();
         try {
             if (!tree.isEmpty()) {
-                BTreeNode root = getRoot(tree);
-                collectElements(root, elements);
+                elements = tree.stream().collect(Collectors.toCollection(ArrayList::new));
             }
         } catch (Exception e) {
             System.err.println("Error obteniendo elementos: " + e.getMessage());
@@ -67,124 +85,80 @@ public class TreeUtils {
         return elements;
     }
 
-    private static void collectElements(BTreeNode node, List<Integer> elements) {
-        if (node != null) {
-            elements.add((Integer) node.data);
-            collectElements(node.left, elements);
-            collectElements(node.right, elements);
-        }
-    }
-
     /**
      * Calcula estadísticas del árbol
      */
-    public static String getTreeStatistics(BTree tree) {
+    public static String getTreeStatistics(Tree<Integer> tree) {
         try {
-            if (tree.isEmpty()) {
+            TreeStats values = collectStatistics(tree);
+            if (values.isEmpty()) {
                 return "El árbol está vacío";
             }
+            return formatStatistics(values);
 
-            StringBuilder stats = new StringBuilder();
-            stats.append("=== ESTADÍSTICAS DEL ÁRBOL ===\n");
-            stats.append("Número de elementos: ").append(tree.size()).append("\n");
-            stats.append("Altura del árbol: ").append(tree.height()).append("\n");
-            stats.append("Número de hojas: ").append(tree.totalLeaves()).append("\n");
-
-            List<Integer> elements = getAllElements(tree);
-            if (!elements.isEmpty()) {
-                int min = elements.stream().min(Integer::compareTo).orElse(0);
-                int max = elements.stream().max(Integer::compareTo).orElse(0);
-                double avg = elements.stream().mapToInt(Integer::intValue).average().orElse(0.0);
-
-                stats.append("Valor mínimo: ").append(min).append("\n");
-                stats.append("Valor máximo: ").append(max).append("\n");
-                stats.append("Promedio: ").append(String.format("%.2f", avg)).append("\n");
-            }
-
-            return stats.toString();
-
-        } catch (TreeException e) {
+        } catch (Exception e) {
             return "Error calculando estadísticas: " + e.getMessage();
         }
     }
 
+    static String formatStatistics(TreeStats values) {
+        StringBuilder stats = new StringBuilder();
+        stats.append("=== ESTADÍSTICAS DEL ÁRBOL ===\n");
+        stats.append("Número de elementos: ").append(values.getCount()).append("\n");
+        stats.append("Altura del árbol: ").append(values.getHeight()).append("\n");
+        stats.append("Número de hojas: ").append(values.getLeaves()).append("\n");
+        stats.append("Nodos con un hijo: ").append(values.getOneChild()).append("\n");
+        stats.append("Nodos con dos hijos: ").append(values.getTwoChildren()).append("\n");
+        stats.append("Valor mínimo: ").append(values.getMin()).append("\n");
+        stats.append("Valor máximo: ").append(values.getMax()).append("\n");
+        stats.append("Promedio: ").append(String.format("%.2f", values.getAverage())).append("\n");
+        return stats.toString();
+    }
+
     /**
-     * Verifica si el árbol está balanceado
+     * Calcula todas las estadísticas en un único recorrido (preorden con pila explícita),
+     * acumulando en variables primitivas
      */
-    public static boolean isBalanced(BTree tree) {
-        try {
-            if (tree.isEmpty()) return true;
-            BTreeNode root = getRoot(tree);
-            return checkBalance(root) != -1;
-        } catch (Exception e) {
-            return false;
-        }
+    public static TreeStats collectStatistics(Tree<Integer> tree) {
+        TreeStats.Accumulator stats = new TreeStats.Accumulator();
+        tree.walk(stats);
+        return stats.result();
     }
 
-    private static int checkBalance(BTreeNode node) {
-        if (node == null) return 0;
-
-        int leftHeight = checkBalance(node.left);
-        if (leftHeight == -1) return -1;
-
-        int rightHeight = checkBalance(node.right);
-        if (rightHeight == -1) return -1;
-
-        if (Math.abs(leftHeight - rightHeight) > 1) return -1;
-
-        return Math.max(leftHeight, rightHeight) + 1;
+    /**
+     * Verifica si el árbol está balanceado
+     */
+    public static boolean isBalanced(BTree<?> tree) {
+        // en árboles grandes se revisa en paralelo (fork/join) usando las alturas guardadas
+        return tree.isBalanced();
     }
 
     /**
-     * Genera un reporte completo del árbol
+     * Genera un reporte completo del árbol. Cada sección se acota a
+     * TreeReport.DEFAULT_SECTION_BUDGET caracteres; para el texto completo de un árbol
+     * muy grande se usa writeCompleteReport con TreeReport.UNBOUNDED, a costa de memoria
      */
-    public static String generateCompleteReport(BTree tree) {
+    public static String generateCompleteReport(Tree<Integer> tree) {
         StringBuilder report = new StringBuilder();
+        writeCompleteReport(tree, report, TreeReport.DEFAULT_SECTION_BUDGET);
+        return report.toString();
+    }
 
-        report.append("=== REPORTE COMPLETO DEL ÁRBOL BINARIO ===\n\n");
-
+    /**
+     * Escribe el reporte completo en un solo recorrido del árbol; cada sección guarda a
+     * lo sumo sectionBudget caracteres
+     */
+    public static void writeCompleteReport(Tree<Integer> tree, Appendable out, int sectionBudget) {
         try {
+            out.append("=== REPORTE COMPLETO DEL ÁRBOL BINARIO ===\n\n");
             if (tree.isEmpty()) {
-                report.append("El árbol está vacío.\n");
-                return report.toString();
+                out.append("El árbol está vacío.\n");
+                return;
             }
+            TreeReport.complete(sectionBudget).write(tree, out);
 
-            // Estadísticas básicas
-            report.append(getTreeStatistics(tree)).append("\n");
-
-            // Información de balance
-            report.append("¿Está balanceado?: ").append(isBalanced(tree) ? "SÍ" : "NO").append("\n\n");
-
-            // Recorridos
-            report.append("=== RECORRIDOS ===\n");
-            report.append("PreOrder:  ").append(tree.preOrder()).append("\n");
-            report.append("InOrder:   ").append(tree.inOrder()).append("\n");
-            report.append("PostOrder: ").append(tree.postOrder()).append("\n\n");
-
-            // Información detallada de nodos
-            report.append("=== INFORMACIÓN DETALLADA DE NODOS ===\n");
-            report.append(tree.printLeaves()).append("\n\n");
-            report.append(tree.printNodes1Child()).append("\n");
-            report.append(tree.printNodes2Children()).append("\n");
-            report.append(tree.printNodesWithChildren()).append("\n");
-
-            // Estructura visual
-            report.append("\n=== ESTRUCTURA VISUAL ===\n");
-            report.append(treeToString(tree));
-
-        } catch (TreeException e) {
-            report.append("Error generando reporte: ").append(e.getMessage());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error generando reporte", e);
         }
-
-        return report.toString();
-    }
-
-    /**
-     * Método auxiliar para obtener la raíz del árbol usando reflexión
-     */
-    private static BTreeNode getRoot(BTree tree) throws Exception {
-        Field rootField = BTree.class.getDeclaredField("root");
-        rootField.setAccessible(true);
-        return (BTreeNode) rootField.get(tree);
     }
-}
\ No newline at end of file
+}
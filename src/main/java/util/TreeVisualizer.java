@@ -1,8 +1,8 @@
 package util;
 
-import domain.BTree;
-import domain.BTreeNode;
+import domain.Tree;
 import domain.TreeException;
+import domain.TreeNodeView;
 import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.scene.shape.Circle;
@@ -11,7 +11,7 @@ import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.text.Text;
 
-import java.lang.reflect.Field;
+import java.util.ArrayDeque;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -24,7 +24,7 @@ public class TreeVisualizer {
     private static final Color LINE_COLOR = Color.BLACK;
     private static final Color LEVEL_LINE_COLOR = Color.RED;
 
-    public void drawTree(BTree tree, Pane pane) throws TreeException {
+    public void drawTree(Tree<?> tree, Pane pane) throws TreeException {
         pane.getChildren().clear();
 
         if (tree.isEmpty()) {
@@ -35,7 +35,7 @@ public class TreeVisualizer {
             return;
         }
 
-        BTreeNode root = getRoot(tree);
+        TreeNodeView<?> root = tree.root();
         if (root != null) {
             // Validar estructura del árbol antes de dibujar
             if (!validateTreeStructure(root)) {
@@ -58,7 +58,7 @@ public class TreeVisualizer {
             pane.setPrefSize(requiredWidth, requiredHeight);
             pane.setMinSize(requiredWidth, requiredHeight);
 
-            Map<BTreeNode, NodePosition> positions = calculatePositions(root, requiredWidth);
+            Map<TreeNodeView<?>, NodePosition> positions = calculatePositions(root, requiredWidth);
 
             // Primero dibujar las conexiones (líneas) - CORREGIDO
             drawConnections(pane, root, positions);
@@ -68,7 +68,7 @@ public class TreeVisualizer {
         }
     }
 
-    public void drawTreeWithLevels(BTree tree, Pane pane) throws TreeException {
+    public void drawTreeWithLevels(Tree<?> tree, Pane pane) throws TreeException {
         pane.getChildren().clear();
 
         if (tree.isEmpty()) {
@@ -79,7 +79,7 @@ public class TreeVisualizer {
             return;
         }
 
-        BTreeNode root = getRoot(tree);
+        TreeNodeView<?> root = tree.root();
         int height = tree.height();
         int nodeCount = tree.size();
 
@@ -104,12 +104,12 @@ public class TreeVisualizer {
         drawLevelLines(pane, height, requiredWidth);
 
         // Luego dibujar el árbol
-        Map<BTreeNode, NodePosition> positions = calculatePositions(root, requiredWidth);
+        Map<TreeNodeView<?>, NodePosition> positions = calculatePositions(root, requiredWidth);
         drawConnections(pane, root, positions);
         drawNodes(pane, positions);
     }
 
-    public void drawTreeWithTour(BTree tree, Pane pane, String tourType) throws TreeException {
+    public void drawTreeWithTour(Tree<?> tree, Pane pane, String tourType) throws TreeException {
         pane.getChildren().clear();
 
         if (tree.isEmpty()) {
@@ -120,7 +120,7 @@ public class TreeVisualizer {
             return;
         }
 
-        BTreeNode root = getRoot(tree);
+        TreeNodeView<?> root = tree.root();
         int height = tree.height();
         int nodeCount = tree.size();
 
@@ -141,7 +141,7 @@ public class TreeVisualizer {
         pane.setPrefSize(requiredWidth, requiredHeight);
         pane.setMinSize(requiredWidth, requiredHeight);
 
-        Map<BTreeNode, NodePosition> positions = calculatePositions(root, requiredWidth);
+        Map<TreeNodeView<?>, NodePosition> positions = calculatePositions(root, requiredWidth);
 
         // Dibujar conexiones
         drawConnections(pane, root, positions);
@@ -190,46 +190,35 @@ public class TreeVisualizer {
         return Math.min(requiredWidth, 2500);
     }
 
-    private BTreeNode getRoot(BTree tree) {
-        try {
-            Field rootField = BTree.class.getDeclaredField("root");
-            rootField.setAccessible(true);
-            return (BTreeNode) rootField.get(tree);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
-        }
-    }
-
     // Validar que cada nodo tenga máximo un padre - SIMPLIFICADO
-    private boolean validateTreeStructure(BTreeNode root) {
+    private boolean validateTreeStructure(TreeNodeView<?> root) {
         if (root == null) return true;
 
-        java.util.Set<BTreeNode> visited = new java.util.HashSet<>();
+        java.util.Set<TreeNodeView<?>> visited = new java.util.HashSet<>();
         return validateNode(root, visited, null);
     }
 
-    private boolean validateNode(BTreeNode node, java.util.Set<BTreeNode> visited, BTreeNode parent) {
+    private boolean validateNode(TreeNodeView<?> node, java.util.Set<TreeNodeView<?>> visited, TreeNodeView<?> parent) {
         if (node == null) return true;
 
         // Si ya visitamos este nodo, hay un ciclo o referencia duplicada
         if (visited.contains(node)) {
-            System.err.println("Error: Nodo duplicado detectado - " + node.data);
+            System.err.println("Error: Nodo duplicado detectado - " + node.getData());
             return false;
         }
 
         visited.add(node);
 
         // Validar hijos
-        return validateNode(node.left, visited, node) &&
-                validateNode(node.right, visited, node);
+        return validateNode(node.getLeft(), visited, node) &&
+                validateNode(node.getRight(), visited, node);
     }
 
-    private Map<BTreeNode, NodePosition> calculatePositions(BTreeNode root, double canvasWidth) {
-        Map<BTreeNode, NodePosition> positions = new HashMap<>();
+    private Map<TreeNodeView<?>, NodePosition> calculatePositions(TreeNodeView<?> root, double canvasWidth) {
+        Map<TreeNodeView<?>, NodePosition> positions = new HashMap<>();
 
         // Calcular el ancho total necesario para cada subárbol
-        Map<BTreeNode, Double> subtreeWidths = new HashMap<>();
+        Map<TreeNodeView<?>, Double> subtreeWidths = new HashMap<>();
         calculateSubtreeWidths(root, subtreeWidths);
 
         // Posicionar nodos centrados en el canvas
@@ -238,38 +227,58 @@ public class TreeVisualizer {
         return positions;
     }
 
-    private double calculateSubtreeWidths(BTreeNode node, Map<BTreeNode, Double> widths) {
-        if (node == null) return 0;
+    //recorrido en postorden con pila explícita: cada nodo se calcula después de sus hijos
+    private double calculateSubtreeWidths(TreeNodeView<?> root, Map<TreeNodeView<?>, Double> widths) {
+        if (root == null) return 0;
 
-        double leftWidth = calculateSubtreeWidths(node.left, widths);
-        double rightWidth = calculateSubtreeWidths(node.right, widths);
+        ArrayDeque<TreeNodeView<?>> stack = new ArrayDeque<>();
+        TreeNodeView<?> node = root;
+        TreeNodeView<?> lastVisited = null;
 
-        double totalWidth;
-        if (leftWidth == 0 && rightWidth == 0) {
-            // Nodo hoja - más compacto
-            totalWidth = MIN_HORIZONTAL_SPACING * 0.7;
-        } else {
-            // Nodo interno - suma controlada
-            totalWidth = leftWidth + rightWidth + (MIN_HORIZONTAL_SPACING * 0.6);
-        }
+        while (node != null || !stack.isEmpty()) {
+            if (node != null) {
+                stack.push(node);
+                node = node.getLeft();
+                continue;
+            }
+            TreeNodeView<?> top = stack.peek();
+            if (top.getRight() != null && lastVisited != top.getRight()) {
+                node = top.getRight();
+                continue;
+            }
+            stack.pop();
+
+            double leftWidth = top.getLeft() == null ? 0 : widths.get(top.getLeft());
+            double rightWidth = top.getRight() == null ? 0 : widths.get(top.getRight());
+
+            double totalWidth;
+            if (leftWidth == 0 && rightWidth == 0) {
+                // Nodo hoja - más compacto
+                totalWidth = MIN_HORIZONTAL_SPACING * 0.7;
+            } else {
+                // Nodo interno - suma controlada
+                totalWidth = leftWidth + rightWidth + (MIN_HORIZONTAL_SPACING * 0.6);
+            }
 
-        widths.put(node, totalWidth);
-        return totalWidth;
+            widths.put(top, totalWidth);
+            lastVisited = top;
+        }
+        return widths.get(root);
     }
 
-    private void positionNodeAdvanced(BTreeNode node, double x, double y,
-                                      Map<BTreeNode, NodePosition> positions,
-                                      Map<BTreeNode, Double> subtreeWidths) {
+    private void positionNodeAdvanced(TreeNodeView<?> node, double x, double y,
+                                      Map<TreeNodeView<?>, NodePosition> positions,
+                                      Map<TreeNodeView<?>, Double> subtreeWidths) {
         if (node == null) return;
 
         positions.put(node, new NodePosition(x, y));
 
         double nextY = y + LEVEL_HEIGHT;
 
-        if (node.left != null && node.right != null) {
+        if (node.getLeft() != null && node.getRight() != null) {
             // Ambos hijos existen - usar separación más balanceada
-            double leftWidth = subtreeWidths.getOrDefault(node.left, (double)MIN_HORIZONTAL_SPACING);
-            double rightWidth = subtreeWidths.getOrDefault(node.right, (double)MIN_HORIZONTAL_SPACING);
+            double leftWidth = subtreeWidths.getOrDefault(node.getLeft(), (double)MIN_HORIZONTAL_SPACING);
+            double rightWidth = subtreeWidths.getOrDefault(node.getRight(), (double)MIN_HORIZONTAL_SPACING);
 
             // Separación más controlada pero aumentada para evitar superposiciones
             double separation = Math.max(MIN_HORIZONTAL_SPACING * 0.8, Math.min(leftWidth, rightWidth) / 2.2);
@@ -277,22 +286,22 @@ public class TreeVisualizer {
             double leftX = x - separation;
             double rightX = x + separation;
 
-            positionNodeAdvanced(node.left, leftX, nextY, positions, subtreeWidths);
-            positionNodeAdvanced(node.right, rightX, nextY, positions, subtreeWidths);
+            positionNodeAdvanced(node.getLeft(), leftX, nextY, positions, subtreeWidths);
+            positionNodeAdvanced(node.getRight(), rightX, nextY, positions, subtreeWidths);
 
-        } else if (node.left != null) {
+        } else if (node.getLeft() != null) {
             // Solo hijo izquierdo
-            positionNodeAdvanced(node.left, x - MIN_HORIZONTAL_SPACING / 2.8, nextY, positions, subtreeWidths);
+            positionNodeAdvanced(node.getLeft(), x - MIN_HORIZONTAL_SPACING / 2.8, nextY, positions, subtreeWidths);
 
-        } else if (node.right != null) {
+        } else if (node.getRight() != null) {
             // Solo hijo derecho
-            positionNodeAdvanced(node.right, x + MIN_HORIZONTAL_SPACING / 2.8, nextY, positions, subtreeWidths);
+            positionNodeAdvanced(node.getRight(), x + MIN_HORIZONTAL_SPACING / 2.8, nextY, positions, subtreeWidths);
         }
     }
 
-    private void drawNodes(Pane pane, Map<BTreeNode, NodePosition> positions) {
-        for (Map.Entry<BTreeNode, NodePosition> entry : positions.entrySet()) {
-            BTreeNode node = entry.getKey();
+    private void drawNodes(Pane pane, Map<TreeNodeView<?>, NodePosition> positions) {
+        for (Map.Entry<TreeNodeView<?>, NodePosition> entry : positions.entrySet()) {
+            TreeNodeView<?> node = entry.getKey();
             NodePosition pos = entry.getValue();
 
             // Dibujar el círculo del nodo
@@ -302,7 +311,7 @@ public class TreeVisualizer {
             circle.setStrokeWidth(2.5);
 
             // Dibujar el texto del nodo
-            Text text = new Text(node.data.toString());
+            Text text = new Text(node.getData().toString());
             text.setFont(Font.font("Arial", FontWeight.BOLD, 14));
             text.setFill(Color.BLACK);
 
@@ -315,15 +324,15 @@ public class TreeVisualizer {
     }
 
     // MÉTODO CORREGIDO: Solo dibuja conexiones directas padre-hijo
-    private void drawConnections(Pane pane, BTreeNode node, Map<BTreeNode, NodePosition> positions) {
+    private void drawConnections(Pane pane, TreeNodeView<?> node, Map<TreeNodeView<?>, NodePosition> positions) {
         if (node == null) return;
 
         NodePosition currentPos = positions.get(node);
         if (currentPos == null) return;
 
         // Dibujar línea al hijo izquierdo (solo si existe)
-        if (node.left != null) {
-            NodePosition leftPos = positions.get(node.left);
+        if (node.getLeft() != null) {
+            NodePosition leftPos = positions.get(node.getLeft());
             if (leftPos != null) {
                 Line line = new Line(currentPos.x, currentPos.y + NODE_RADIUS,
                         leftPos.x, leftPos.y - NODE_RADIUS);
@@ -334,8 +343,8 @@ public class TreeVisualizer {
         }
 
         // Dibujar línea al hijo derecho (solo si existe)
-        if (node.right != null) {
-            NodePosition rightPos = positions.get(node.right);
+        if (node.getRight() != null) {
+            NodePosition rightPos = positions.get(node.getRight());
             if (rightPos != null) {
                 Line line = new Line(currentPos.x, currentPos.y + NODE_RADIUS,
                         rightPos.x, rightPos.y - NODE_RADIUS);
@@ -346,8 +355,8 @@ public class TreeVisualizer {
         }
 
         // Continuar recursivamente con los hijos
-        drawConnections(pane, node.left, positions);
-        drawConnections(pane, node.right, positions);
+        drawConnections(pane, node.getLeft(), positions);
+        drawConnections(pane, node.getRight(), positions);
     }
 
     private void drawLevelLines(Pane pane, int maxHeight, double canvasWidth) {
@@ -370,8 +379,8 @@ public class TreeVisualizer {
         }
     }
 
-    private void drawTourNumbers(Pane pane, BTreeNode root, Map<BTreeNode, NodePosition> positions, String tourType) {
-        Map<BTreeNode, Integer> tourOrder = new HashMap<>();
+    private void drawTourNumbers(Pane pane, TreeNodeView<?> root, Map<TreeNodeView<?>, NodePosition> positions, String tourType) {
+        Map<TreeNodeView<?>, Integer> tourOrder = new HashMap<>();
         int[] counter = {1}; // Array para pasar por referencia
 
         switch (tourType.toLowerCase()) {
@@ -387,8 +396,8 @@ public class TreeVisualizer {
         }
 
         // Dibujar números debajo de los nodos
-        for (Map.Entry<BTreeNode, Integer> entry : tourOrder.entrySet()) {
-            BTreeNode node = entry.getKey();
+        for (Map.Entry<TreeNodeView<?>, Integer> entry : tourOrder.entrySet()) {
+            TreeNodeView<?> node = entry.getKey();
             Integer order = entry.getValue();
             NodePosition pos = positions.get(node);
 
@@ -411,24 +420,24 @@ public class TreeVisualizer {
         }
     }
 
-    private void calculatePreOrder(BTreeNode node, Map<BTreeNode, Integer> order, int[] counter) {
+    private void calculatePreOrder(TreeNodeView<?> node, Map<TreeNodeView<?>, Integer> order, int[] counter) {
         if (node == null) return;
         order.put(node, counter[0]++);
-        calculatePreOrder(node.left, order, counter);
-        calculatePreOrder(node.right, order, counter);
+        calculatePreOrder(node.getLeft(), order, counter);
+        calculatePreOrder(node.getRight(), order, counter);
     }
 
-    private void calculateInOrder(BTreeNode node, Map<BTreeNode, Integer> order, int[] counter) {
+    private void calculateInOrder(TreeNodeView<?> node, Map<TreeNodeView<?>, Integer> order, int[] counter) {
         if (node == null) return;
-        calculateInOrder(node.left, order, counter);
+        calculateInOrder(node.getLeft(), order, counter);
         order.put(node, counter[0]++);
-        calculateInOrder(node.right, order, counter);
+        calculateInOrder(node.getRight(), order, counter);
     }
 
-    private void calculatePostOrder(BTreeNode node, Map<BTreeNode, Integer> order, int[] counter) {
+    private void calculatePostOrder(TreeNodeView<?> node, Map<TreeNodeView<?>, Integer> order, int[] counter) {
         if (node == null) return;
-        calculatePostOrder(node.left, order, counter);
-        calculatePostOrder(node.right, order, counter);
+        calculatePostOrder(node.getLeft(), order, counter);
+        calculatePostOrder(node.getRight(), order, counter);
         order.put(node, counter[0]++);
     }
 
@@ -120,36 +120,38 @@ public class Utility {
         return result;
     }
 
+    //Devuelve -1, 0 o 1 según el orden de a y b, o 2 si los tipos no se pueden comparar.
+    //Integer, Character y String se comparan directamente, sin crear objetos; dos objetos
+    //de otra misma clase usan el comparador guardado para esa clase (se resuelve una sola vez)
     public static int compare(Object a, Object b) {
-        switch (instanceOf(a,b)){
-            case "Integer":
-                Integer int1 = (Integer)a;
-                Integer int2 = (Integer)b;
-                return int1 < int2 ? -1 :int1 > int2 ? 1 : 0; // ? --> Si es cierto haga... /// : --> Pero si no es cierto entonces haga... Puntos son como el else, ? es como el if
-
-            case "String":
-                String str1 = (String)a;
-                String str2 = (String)b;
-                return str1.compareTo(str2) < 0 ? -1 : str1.compareTo(str2) > 0 ? 1 : 0;
-
-            case "Character":
-                Character ch1 = (Character) a; Character ch2 = (Character) b;
-                return ch1.compareTo(ch2) < 0 ? -1 : ch1.compareTo(ch2) > 0 ? 1 : 0;
-
-          /*  case "Employee":
-                Employee emp1 = (Employee) a; Employee emp2 = (Employee) b;
-                return emp1.getId() < emp2.getId() ? -1 :  emp1.getId() > emp2.getId() ? 1 : 0;
-
-            case "JobPosition":
-                JobPosition job1 = (JobPosition) a;
-                JobPosition job2 = (JobPosition) b;
-                return job1.getId() < job2.getId() ? -1 : job1.getId() > job2.getId() ? 1 : 0;
-                */
-
-        }//End switch
+        if (a instanceof Integer && b instanceof Integer) {
+            return Integer.compare((Integer) a, (Integer) b);
+        }
+        if (a instanceof Character && b instanceof Character) {
+            return Integer.signum(Character.compare((Character) a, (Character) b));
+        }
+        if (a instanceof String && b instanceof String) {
+            return Integer.signum(((String) a).compareTo((String) b)); //un solo compareTo
+        }
+        if (a == null || b == null || a.getClass() != b.getClass()) return 2; //Cuando es un caso Unknown
+        return comparators.get(a.getClass()).compare(a, b);
+    }
+
+    //comparador por clase. ClassValue guarda el valor junto a la clase, sin retenerla:
+    //si su classloader se descarta, la entrada se descarta con él
+    private static final ClassValue<java.util.Comparator<Object>> comparators = new ClassValue<java.util.Comparator<Object>>() {
+        //los objetos de una misma clase Comparable usan su orden natural
+        @Override
+        @SuppressWarnings("unchecked")
+        protected java.util.Comparator<Object> computeValue(Class<?> type) {
+            if (Comparable.class.isAssignableFrom(type)) {
+                return (a, b) -> Integer.signum(((Comparable<Object>) a).compareTo(b));
+            }
+            return UNKNOWN;
+        }
+    };
 
-        return 2; //Cuando es un caso Unknown
-    }
+    private static final java.util.Comparator<Object> UNKNOWN = (a, b) -> 2;
 
     public static String instanceOf(Object a, Object b) {
         if (a instanceof Integer && b instanceof Integer) return "Integer";
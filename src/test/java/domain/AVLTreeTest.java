@@ -0,0 +1,62 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AVLTreeTest {
+
+    @Test
+    void testAVLTreeMatchesSortedSet() throws TreeException {
+        AVLTree<Integer> avl = new AVLTree<>();
+        TreeSet<Integer> expected = new TreeSet<>();
+
+        for (int i = 0; i < 2000; i++) {
+            int value = util.Utility.random(5000);
+            avl.add(value);
+            expected.add(value);
+        }
+
+        assertEquals(expected.size(), avl.size());
+        assertEquals(expected.first(), avl.min());
+        assertEquals(expected.last(), avl.max());
+        assertEquals(join(expected), avl.inOrder());
+        // Un árbol AVL con n nodos tiene altura menor a 1.45 * log2(n)
+        assertTrue(avl.height() < 1.45 * Math.log(expected.size()) / Math.log(2));
+
+        for (int value = 0; value < 5000; value += 3) {
+            if (expected.remove(value)) avl.remove(value);
+        }
+
+        assertEquals(expected.size(), avl.size());
+        assertEquals(join(expected), avl.inOrder());
+        assertEquals(expected.first(), avl.min());
+        assertEquals(expected.last(), avl.max());
+        for (int value = 0; value < 5000; value++) {
+            assertEquals(expected.contains(value), avl.contains(value));
+        }
+    }
+
+    @Test
+    void testHeightOfElement() throws TreeException {
+        AVLTree<Integer> avl = new AVLTree<>();
+        int[] values = {50, 30, 70, 20, 40, 60, 80, 10};
+        for (int value : values) avl.add(value);
+
+        System.out.println("=== PRUEBA AVL ===");
+        System.out.println(avl);
+        assertEquals(0, avl.height(50));
+        assertEquals(1, avl.height(30));
+        assertEquals(2, avl.height(60));
+        assertEquals(3, avl.height(10));
+        assertEquals(3, avl.height());
+    }
+
+    private String join(TreeSet<Integer> values) {
+        StringBuilder result = new StringBuilder();
+        for (Integer value : values) result.append(value).append(" ");
+        return result.toString().trim();
+    }
+}
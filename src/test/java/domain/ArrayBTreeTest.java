@@ -0,0 +1,152 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArrayBTreeTest {
+
+    @Test
+    void testImplicitLayoutTraversals() throws TreeException {
+        ArrayBTree<Integer> tree = new ArrayBTree<>(2);
+        for (int value = 1; value <= 10; value++) tree.add(value);
+        tree.add(5); // duplicado, se ignora
+
+        //         1
+        //      2     3
+        //     4 5   6 7
+        //    8 9 10
+        System.out.println(tree);
+        assertEquals(10, tree.size());
+        assertEquals("1 2 4 8 9 5 10 3 6 7", tree.preOrder());
+        assertEquals("8 4 9 2 10 5 1 6 3 7", tree.inOrder());
+        assertEquals("8 9 4 10 5 2 6 7 3 1", tree.postOrder());
+        assertEquals(3, tree.height());
+        assertEquals(0, tree.height(1));
+        assertEquals(2, tree.height(7));
+        assertEquals(3, tree.height(10));
+        assertEquals(5, tree.totalLeaves());
+        assertEquals(1, tree.min());
+        assertEquals(10, tree.max());
+    }
+
+    @Test
+    void testRemoveKeepsTreeComplete() throws TreeException {
+        ArrayBTree<Integer> tree = new ArrayBTree<>();
+        for (int value = 1; value <= 7; value++) tree.add(value);
+
+        tree.remove(2); // el último elemento (7) ocupa su lugar
+        assertEquals("1 7 4 5 3 6", tree.preOrder());
+        assertFalse(tree.contains(2));
+        assertEquals(2, tree.height());
+
+        tree.remove(1);
+        tree.remove(100);
+        assertEquals("6 7 4 5 3", tree.preOrder());
+        assertEquals(5, tree.size());
+    }
+
+    @Test
+    void testIndexFollowsElementsMovedByRemove() throws TreeException {
+        ArrayBTree<Integer> tree = new ArrayBTree<>(true);
+        java.util.Set<Integer> expected = new java.util.HashSet<>();
+        java.util.Random random = new java.util.Random(5);
+        // con búsqueda lineal este ciclo sería cuadrático
+        for (int i = 0; i < 200_000; i++) {
+            int value = random.nextInt(100_000);
+            if (random.nextInt(4) == 0 && !tree.isEmpty()) {
+                tree.remove(value);
+                expected.remove(value);
+            } else {
+                tree.add(value);
+                expected.add(value);
+            }
+        }
+        assertEquals(expected.size(), tree.size());
+        for (int value = 0; value < 100_000; value += 13) {
+            assertEquals(expected.contains(value), tree.contains(value));
+        }
+        java.util.Set<Integer> listed = new java.util.HashSet<>();
+        for (String value : tree.preOrder().split(" ")) listed.add(Integer.valueOf(value));
+        assertEquals(expected, listed);
+    }
+
+    @Test
+    void testIndexedAndLinearSearchAgree() throws TreeException {
+        ArrayBTree<Integer> indexed = new ArrayBTree<>(true);
+        ArrayBTree<Integer> linear = new ArrayBTree<>();
+        assertTrue(indexed.isIndexed());
+        assertFalse(linear.isIndexed());
+        java.util.Random random = new java.util.Random(6);
+        // pocos valores distintos: muchas colisiones y corrimientos en la tabla
+        for (int i = 0; i < 20_000; i++) {
+            int value = random.nextInt(500);
+            if (random.nextBoolean()) {
+                indexed.remove(value);
+                linear.remove(value);
+            } else {
+                indexed.add(value);
+                linear.add(value);
+            }
+            assertEquals(linear.size(), indexed.size());
+        }
+        assertEquals(linear.preOrder(), indexed.preOrder());
+        for (int value = 0; value < 500; value++) {
+            assertEquals(linear.contains(value), indexed.contains(value));
+        }
+        indexed.clear();
+        assertTrue(indexed.isEmpty());
+        indexed.add(linear.min());
+        assertTrue(indexed.contains(linear.min()));
+    }
+
+    @Test
+    void testArrayLayoutUsesLessMemoryThanLinkedNodes() {
+        // muchos árboles pequeños: sin índice, add busca duplicados recorriendo todo el árbol
+        int n = 5_000, copies = 100;
+        Integer[] values = new Integer[n]; //los mismos objetos en todos los árboles
+        for (int i = 0; i < n; i++) values[i] = i;
+
+        long elements = (long) n * copies;
+        long linear = retainedBytes(copies, () -> fill(new ArrayBTree<>(n, BTree.naturalOrder()), values));
+        long indexed = retainedBytes(copies, () -> fill(new ArrayBTree<>(true), values));
+        long linked = retainedBytes(copies, () -> fill(new BTree<>(), values));
+        System.out.printf("bytes por elemento: ArrayBTree %.1f, con índice %.1f, BTree %.1f%n",
+                (double) linear / elements, (double) indexed / elements, (double) linked / elements);
+
+        // una referencia por elemento (4 u 8 bytes); con índice, el arreglo crecido al
+        // doble y una tabla de ints de 2 a 4 veces el número de elementos
+        assertTrue(linear < 16 * elements, "sin índice: " + linear);
+        assertTrue(indexed < 40 * elements, "con índice: " + indexed);
+        assertTrue(linear * 3 < linked, "sin índice " + linear + " vs BTree " + linked);
+        assertTrue(indexed < linked, "con índice " + indexed + " vs BTree " + linked);
+    }
+
+    private static Tree<Integer> fill(Tree<Integer> tree, Integer[] values) {
+        for (Integer value : values) tree.add(value);
+        return tree;
+    }
+
+    //memoria que sigue ocupada mientras los árboles construidos están vivos
+    private static long retainedBytes(int copies, java.util.function.Supplier<Tree<Integer>> build) {
+        long before = usedAfterGc();
+        java.util.List<Tree<Integer>> trees = new java.util.ArrayList<>(copies);
+        for (int i = 0; i < copies; i++) trees.add(build.get());
+        long after = usedAfterGc();
+        assertEquals(copies, trees.size()); //mantiene los árboles vivos hasta la segunda medición
+        return after - before;
+    }
+
+    private static long usedAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
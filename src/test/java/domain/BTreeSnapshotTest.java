@@ -0,0 +1,125 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BTreeSnapshotTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRoundTripKeepsShapeAndPaths() throws Exception {
+        BTree<Integer> tree = new BTree<>();
+        Random random = new Random(23);
+        for (int i = 0; i < 5_000; i++) {
+            int value = random.nextInt(20_000) - 10_000;
+            // los borrados dejan formas irregulares (nodos con un solo hijo, promociones)
+            if (random.nextInt(4) == 0 && !tree.isEmpty()) tree.remove(value);
+            else tree.add(value);
+        }
+        tree.add(Integer.MIN_VALUE);
+        tree.add(Integer.MAX_VALUE);
+
+        Path file = dir.resolve("tree.bts");
+        BTreeSnapshot.save(tree, file);
+        for (boolean indexed : new boolean[]{false, true}) {
+            BTree<Integer> loaded = BTreeSnapshot.load(file, indexed);
+            // padre, nivel, posición, tamaño y altura de cada nodo, y el índice
+            assertTrue(loaded.validateStructure());
+            assertSameNodes(tree, loaded);
+            assertEquals(tree.size(), loaded.size());
+            assertEquals(tree.height(), loaded.height());
+            assertEquals(tree.preOrder(), loaded.preOrder());
+            assertEquals(tree.inOrder(), loaded.inOrder());
+            assertTrue(loaded.contains(Integer.MIN_VALUE));
+
+            // el árbol cargado sigue funcionando igual que el original
+            loaded.remove(Integer.MAX_VALUE);
+            loaded.add(123_456);
+            assertTrue(loaded.validateStructure());
+        }
+    }
+
+    @Test
+    void testValidatorRejectsWrongHeight() throws Exception {
+        Path file = dir.resolve("small.bts");
+        BTreeSnapshot.save(BTree.buildFrom(new int[]{1, 2, 3, 4, 5, 6, 7}, false), file);
+        BTree<Integer> loaded = BTreeSnapshot.load(file, false);
+        assertTrue(loaded.validateStructure());
+
+        BTreeNode<Integer> root = (BTreeNode<Integer>) loaded.root();
+        root.left.height++;
+        assertFalse(loaded.validateStructure());
+    }
+
+    //mismos datos, alturas y tamaños nodo por nodo, en preorden
+    private static void assertSameNodes(BTree<Integer> expected, BTree<Integer> actual) {
+        java.util.List<TreeNodeView<Integer>> nodes = new java.util.ArrayList<>();
+        expected.walk(new TreeVisitor<Integer>() {
+            @Override
+            public void preOrder(TreeNodeView<Integer> node, TreeNodeView<Integer> parent) {
+                nodes.add(node);
+            }
+        });
+        java.util.Iterator<TreeNodeView<Integer>> pending = nodes.iterator();
+        actual.walk(new TreeVisitor<Integer>() {
+            @Override
+            public void preOrder(TreeNodeView<Integer> node, TreeNodeView<Integer> parent) {
+                TreeNodeView<Integer> original = pending.next();
+                assertEquals(original.getData(), node.getData());
+                assertEquals(original.getHeight(), node.getHeight(), "altura de " + node.getData());
+                assertEquals(original.getSize(), node.getSize(), "tamaño de " + node.getData());
+            }
+        });
+        assertFalse(pending.hasNext());
+    }
+
+    @Test
+    void testEmptyAndCorruptFiles() throws Exception {
+        Path file = dir.resolve("empty.bts");
+        BTreeSnapshot.save(new BTree<>(), file);
+        assertTrue(BTreeSnapshot.load(file, false).isEmpty());
+
+        Path bad = dir.resolve("bad.bts");
+        Files.write(bad, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IOException.class, () -> BTreeSnapshot.load(bad, false));
+
+        BTree<Integer> tree = BTree.buildFrom(new int[]{1, 2, 3, 4, 5}, false);
+        Path truncated = dir.resolve("truncated.bts");
+        BTreeSnapshot.save(tree, truncated);
+        byte[] bytes = Files.readAllBytes(truncated);
+        Files.write(truncated, java.util.Arrays.copyOf(bytes, bytes.length - 2));
+        assertThrows(IOException.class, () -> BTreeSnapshot.load(truncated, false));
+    }
+
+    @Test
+    void testLargeTreeRoundTrip() throws Exception {
+        int n = 1_000_000;
+        int[] keys = new int[n];
+        for (int i = 0; i < n; i++) keys[i] = i * 3;
+        BTree<Integer> tree = BTree.buildFrom(keys, false);
+        Path file = dir.resolve("large.bts");
+
+        long start = System.nanoTime();
+        BTreeSnapshot.save(tree, file);
+        long saved = System.nanoTime();
+        BTree<Integer> loaded = BTreeSnapshot.load(file, false);
+        long loadedAt = System.nanoTime();
+        System.out.printf("BTreeSnapshot, %d nodos: %d bytes, guardar %d ms, cargar %d ms%n", n,
+                Files.size(file), (saved - start) / 1_000_000, (loadedAt - saved) / 1_000_000);
+
+        // llaves en preorden ascendente: un byte por llave más dos bits de forma
+        assertTrue(Files.size(file) < 8 + n / 4 + 2L * n);
+        assertEquals(n, loaded.size());
+        assertEquals(tree.height(), loaded.height());
+        assertTrue(loaded.validateStructure());
+        assertSameNodes(tree, loaded);
+    }
+}
@@ -10,7 +10,7 @@ class BTreeTest {
     void testBTreeRequirements() {
         try {
             System.out.println("a. Creando árbol e insertando 30 valores aleatorios entre 0 y 50:");
-            BTree btree = new BTree();
+            BTree<Integer> btree = new BTree<>();
 
             for (int i = 0; i < 30; i++) {
                 // Para generar números entre 0 y 50
@@ -92,7 +92,7 @@ class BTreeTest {
 
     @Test
     void testHeight() throws TreeException {
-        BTree bTree = new BTree();
+        BTree<Integer> bTree = new BTree<>();
         bTree.add(20);
         bTree.add(30);
         bTree.add(18);
@@ -117,7 +117,7 @@ class BTreeTest {
     @Test
     void testExtendedMethods() {
         try {
-            BTree btree = new BTree();
+            BTree<Integer> btree = new BTree<>();
 
             System.out.println("=== PRUEBA DE MÉTODOS EXTENDIDOS ===");
 
@@ -182,7 +182,7 @@ class BTreeTest {
         try {
             System.out.println("=== PRUEBA DE VALIDACIÓN DE ESTRUCTURA ===");
 
-            BTree btree = new BTree();
+            BTree<Integer> btree = new BTree<>();
 
             // Agregar algunos elementos
             int[] values = {50, 30, 70, 20, 40, 60, 80};
@@ -206,4 +206,583 @@ class BTreeTest {
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void testCachedHeightKeepsInsertionShape() throws TreeException {
+        // El árbol con alturas guardadas debe tener exactamente la misma forma
+        // que el algoritmo original, que recalculaba la altura de cada subárbol
+        BTree<Integer> btree = new BTree<>();
+        BTreeNode<Integer> reference = null;
+
+        for (int i = 0; i < 500; i++) {
+            int value = util.Utility.random(2000);
+            if (btree.isEmpty() || !btree.contains(value)) {
+                reference = referenceAdd(reference, value);
+            }
+            btree.add(value);
+
+            assertEquals(referencePreOrder(reference).trim(), btree.preOrder());
+            assertEquals(referenceInOrder(reference).trim(), btree.inOrder());
+            assertEquals(referenceHeight(reference), btree.height());
+        }
+
+        // Después de eliminar, la altura guardada debe seguir siendo la profundidad máxima
+        String[] elements = btree.preOrder().split("\\s+");
+        for (int i = 0; i < elements.length; i += 3) {
+            btree.remove(Integer.parseInt(elements[i]));
+
+            int maxLevel = 0;
+            for (String element : btree.preOrder().split("\\s+")) {
+                maxLevel = Math.max(maxLevel, btree.height(Integer.parseInt(element)));
+            }
+            assertEquals(maxLevel, btree.height());
+        }
+    }
+
+    @Test
+    void testIndexedTreeMatchesPlainTree() throws TreeException {
+        BTree<Integer> plain = new BTree<>();
+        BTree<Integer> indexed = new BTree<>(true);
+
+        for (int i = 0; i < 300; i++) {
+            int value = util.Utility.random(400);
+            plain.add(value);
+            indexed.add(value);
+        }
+        assertEquals(plain.preOrder(), indexed.preOrder());
+
+        for (int value = 0; value < 400; value++) {
+            assertEquals(plain.contains(value), indexed.contains(value));
+            assertEquals(plain.height(value), indexed.height(value));
+        }
+
+        for (int value = 0; value < 400; value += 2) {
+            plain.remove(value);
+            indexed.remove(value);
+            assertEquals(plain.preOrder(), indexed.preOrder());
+            assertTrue(indexed.validateStructure());
+        }
+
+        for (int value = 0; value < 400; value++) {
+            assertEquals(plain.contains(value), indexed.contains(value));
+            assertEquals(plain.height(value), indexed.height(value));
+        }
+    }
+
+    @Test
+    void testPackedPositionPath() throws TreeException {
+        BTree<Integer> btree = new BTree<>();
+        for (int value = 1; value <= 31; value++) btree.add(value);
+
+        BTreeNode<Integer> node = new BTreeNode<>(7, 0L, 0);
+        assertEquals("root", node.getPath());
+        node = new BTreeNode<>(7, BTreeNode.rightPosition(0L, 0), 1);
+        assertEquals("root/right", node.getPath());
+        node = new BTreeNode<>(7, BTreeNode.rightPosition(BTreeNode.rightPosition(0L, 0), 2), 3);
+        assertEquals("root/right/left/right", node.getPath());
+
+        // Las posiciones siguen siendo coherentes después de promover subárboles
+        for (int value = 1; value <= 31; value += 4) {
+            btree.remove(value);
+            assertTrue(btree.validateStructure());
+        }
+        btree.printTreeStructure();
+    }
+
+    @Test
+    void testCustomKeyClassWithComparator() throws TreeException {
+        // Antes, Utility.compare devolvía 2 para tipos desconocidos y contains/remove fallaban
+        BTree<Course> btree = new BTree<>(java.util.Comparator.comparingInt((Course c) -> c.id));
+        for (int id = 1; id <= 10; id++) btree.add(new Course(id, "Curso " + id));
+        btree.add(new Course(3, "Duplicado"));
+
+        assertEquals(10, btree.size());
+        assertTrue(btree.contains(new Course(7, "otro nombre")));
+        assertFalse(btree.contains(new Course(11, "Curso 11")));
+
+        btree.remove(new Course(1, ""));
+        btree.remove(new Course(4, ""));
+        assertEquals(8, btree.size());
+        assertFalse(btree.contains(new Course(1, "")));
+        assertTrue(btree.validateStructure());
+
+        AVLTree<Course> avl = new AVLTree<>(java.util.Comparator.comparing((Course c) -> c.name));
+        avl.add(new Course(2, "Estructuras"));
+        avl.add(new Course(1, "Algoritmos"));
+        avl.add(new Course(3, "Bases de datos"));
+        assertEquals("Algoritmos", avl.min().name);
+        assertEquals("Estructuras", avl.max().name);
+    }
+
+    // Clase propia sin orden natural, para probar árboles con comparador
+    private static class Course {
+        final int id;
+        final String name;
+
+        Course(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        @Override
+        public String toString() {
+            return id + ":" + name;
+        }
+    }
+
+    @Test
+    void testLazyTraversalIterators() throws TreeException {
+        BTree<Integer> btree = new BTree<>();
+        BTreeNode<Integer> reference = null;
+        for (int value = 1; value <= 50; value++) {
+            btree.add(value);
+            reference = referenceAdd(reference, value);
+        }
+        btree.remove(7);
+        btree.remove(30);
+
+        assertEquals(btree.preOrder(), collect(btree.preOrderElements()));
+        assertEquals(btree.inOrder(), collect(btree.inOrderElements()));
+        assertEquals(btree.postOrder(), collect(btree.postOrderElements()));
+
+        // Los recorridos armados con la pila explícita coinciden con los recursivos
+        BTree<Integer> fresh = new BTree<>();
+        for (int value = 1; value <= 50; value++) fresh.add(value);
+        assertEquals(referencePreOrder(reference).trim(), fresh.preOrder());
+        assertEquals(referenceInOrder(reference).trim(), fresh.inOrder());
+        assertEquals(referencePostOrder(reference).trim(), fresh.postOrder());
+
+        // Por niveles: la raíz primero y los niveles nunca decrecen
+        java.util.Iterator<Integer> levels = btree.levelOrderIterator();
+        int lastLevel = 0, count = 0;
+        while (levels.hasNext()) {
+            int level = btree.height(levels.next());
+            assertTrue(level >= lastLevel);
+            lastLevel = level;
+            count++;
+        }
+        assertEquals(btree.size(), count);
+
+        // Se puede detener el recorrido en cualquier momento
+        java.util.Iterator<Integer> inOrder = btree.inOrderIterator();
+        assertEquals(btree.inOrder().split(" ")[0], String.valueOf(inOrder.next()));
+
+        int[] sum = {0};
+        btree.forEachPostOrder(value -> sum[0] += value);
+        assertEquals(50 * 51 / 2 - 7 - 30, sum[0]);
+    }
+
+    private String collect(Iterable<Integer> elements) {
+        StringBuilder result = new StringBuilder();
+        for (Integer element : elements) result.append(element).append(" ");
+        return result.toString().trim();
+    }
+
+    @Test
+    void testTraversalsWrittenToAppendable() throws Exception {
+        BTree<Integer> btree = new BTree<>(true);
+        for (int value = 0; value < 5000; value++) btree.add(value);
+
+        java.io.StringWriter preOrder = new java.io.StringWriter();
+        btree.preOrder(preOrder);
+        assertEquals(btree.preOrder(), preOrder.toString());
+
+        StringBuilder inOrder = new StringBuilder("InOrder: ");
+        btree.inOrder(inOrder);
+        assertEquals("InOrder: " + btree.inOrder(), inOrder.toString());
+
+        // Un destino sin buffer recibe bloques acotados, no un texto con todo el árbol
+        int[] largestChunk = {0};
+        StringBuilder received = new StringBuilder();
+        Appendable unbuffered = new Appendable() {
+            public Appendable append(CharSequence csq) {
+                largestChunk[0] = Math.max(largestChunk[0], csq.length());
+                received.append(csq);
+                return this;
+            }
+            public Appendable append(CharSequence csq, int start, int end) {
+                return append(csq.subSequence(start, end));
+            }
+            public Appendable append(char c) {
+                return append(String.valueOf(c));
+            }
+        };
+        btree.postOrder(unbuffered);
+        assertEquals(btree.postOrder(), received.toString());
+        assertTrue(largestChunk[0] < 9000);
+
+        // Escritura a un archivo por medio de un canal
+        java.nio.file.Path file = java.nio.file.Files.createTempFile("btree", ".txt");
+        try (java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(file,
+                java.nio.file.StandardOpenOption.WRITE);
+             java.io.Writer writer = java.nio.channels.Channels.newWriter(channel, "UTF-8")) {
+            btree.writeTo(writer);
+        }
+        assertEquals(btree.toString(), new String(java.nio.file.Files.readAllBytes(file), "UTF-8"));
+        java.nio.file.Files.delete(file);
+
+        assertThrows(TreeException.class, () -> new BTree<Integer>().preOrder(new StringBuilder()));
+    }
+
+    @Test
+    void testDeepChainsDoNotOverflowTheStack() throws TreeException {
+        final int n = 1_000_000;
+
+        // Cadena izquierda de n nodos (0 -> 1 -> ... -> n-1) y una hoja derecha n en la raíz
+        BTreeNode<Integer> chain = new BTreeNode<>(0);
+        BTreeNode<Integer> last = chain;
+        for (int value = 1; value < n; value++) {
+            last.left = new BTreeNode<>(value);
+            last = last.left;
+        }
+        chain.right = new BTreeNode<>(n);
+
+        BTree<Integer> btree = new BTree<>(true);
+        btree.adopt(chain);
+        assertTrue(btree.validateStructure());
+        assertEquals(n + 1, btree.size());
+        assertEquals(n - 1, btree.height());
+        assertEquals(n - 1, btree.height(n - 1));
+        assertEquals(2, btree.totalLeaves());
+        assertEquals("Binary tree - leaves: " + (n - 1) + ", " + n + ",", btree.printLeaves());
+        assertFalse(util.TreeUtils.isBalanced(btree));
+        assertEquals(n + 1, util.TreeUtils.getAllElements(btree).size());
+
+        assertEquals(Integer.valueOf(n - 1), btree.inOrderIterator().next());
+        int visited = 0;
+        for (Integer ignored : btree.postOrderElements()) visited++;
+        assertEquals(n + 1, visited);
+        assertTrue(btree.preOrder().endsWith((n - 1) + " " + n));
+
+        btree.remove(n / 2);      // caso 2: nodo con un solo hijo en medio de la cadena
+        assertEquals(n - 2, btree.height(n - 1));
+        btree.remove(0);          // caso 3: la raíz tiene dos hijos
+        assertEquals(Integer.valueOf(n), btree.preOrderIterator().next());
+        btree.remove(n - 1);      // caso 1: la hoja al fondo de la cadena
+        btree.add(n + 1);
+        assertTrue(btree.validateStructure());
+        assertEquals(n - 1, btree.size());
+        assertEquals(n - 3, btree.height(n - 2));
+
+        // Sin índice: búsqueda y borrado recorren la cadena derecha con pila explícita
+        BTreeNode<Integer> rightChain = new BTreeNode<>(0);
+        last = rightChain;
+        for (int value = 1; value < n; value++) {
+            last.right = new BTreeNode<>(value);
+            last = last.right;
+        }
+        BTree<Integer> plain = new BTree<>();
+        plain.adopt(rightChain);
+        assertTrue(plain.contains(n - 1));
+        assertEquals(n - 1, plain.height(n - 1));
+        plain.remove(1);
+        plain.remove(n - 1);
+        assertFalse(plain.contains(n - 1));
+        assertEquals(n - 2, plain.size());
+        assertEquals(n - 3, plain.height());
+        assertTrue(plain.validateStructure());
+    }
+
+    @Test
+    void testParallelStreamSplitsBySubtree() throws TreeException {
+        BTree<Integer> btree = new BTree<>(true);
+        for (int value = 0; value < 100_000; value++) btree.add(value);
+        for (int value = 0; value < 100_000; value += 7) btree.remove(value);
+        assertTrue(btree.validateStructure());
+
+        java.util.List<Integer> preOrder = new java.util.ArrayList<>();
+        btree.forEachPreOrder(preOrder::add);
+        assertEquals(preOrder, btree.stream().collect(java.util.stream.Collectors.toList()));
+        // El spliterator es ORDERED: el resultado paralelo conserva el preorden
+        assertEquals(preOrder, btree.parallelStream().collect(java.util.stream.Collectors.toList()));
+        assertEquals(preOrder.stream().mapToLong(Integer::longValue).sum(),
+                btree.parallelStream().mapToLong(Integer::longValue).sum());
+
+        // Cada división conoce su tamaño exacto
+        java.util.Spliterator<Integer> suffix = btree.spliterator();
+        assertEquals(btree.size(), suffix.getExactSizeIfKnown());
+        java.util.Spliterator<Integer> prefix = suffix.trySplit();
+        assertNotNull(prefix);
+        assertTrue(prefix.hasCharacteristics(java.util.Spliterator.SUBSIZED));
+        java.util.Spliterator<Integer> prefixOfPrefix = prefix.trySplit();
+        long expected = prefixOfPrefix.estimateSize() + prefix.estimateSize() + suffix.estimateSize();
+        assertEquals(btree.size(), expected);
+        long[] seen = {0};
+        prefixOfPrefix.forEachRemaining(value -> seen[0]++);
+        prefix.forEachRemaining(value -> seen[0]++);
+        suffix.forEachRemaining(value -> seen[0]++);
+        assertEquals(btree.size(), seen[0]);
+
+        String stats = util.TreeUtils.getTreeStatistics(btree);
+        assertTrue(stats.contains("Valor mínimo: 1\n"));
+        assertTrue(stats.contains("Valor máximo: 99999\n"));
+    }
+
+    @Test
+    void testForkJoinWholeTreeQueries() throws TreeException {
+        // Árbol completo en forma de montículo: hijos de i en 2i+1 y 2i+2
+        final int n = 300_000;
+        java.util.List<BTreeNode<Integer>> nodes = new java.util.ArrayList<>(n);
+        for (int i = 0; i < n; i++) nodes.add(new BTreeNode<>(i));
+        for (int i = 0; 2 * i + 1 < n; i++) {
+            nodes.get(i).left = nodes.get(2 * i + 1);
+            if (2 * i + 2 < n) nodes.get(i).right = nodes.get(2 * i + 2);
+        }
+        BTree<Integer> btree = new BTree<>(true);
+        btree.adopt(nodes.get(0));
+
+        java.util.concurrent.ForkJoinPool pool = new java.util.concurrent.ForkJoinPool(4);
+        try {
+            assertEquals(n - n / 2, btree.totalLeaves(pool));
+            assertEquals(n - n / 2, btree.totalLeaves());
+            assertTrue(btree.isBalanced(pool));
+            assertTrue(util.TreeUtils.isBalanced(btree));
+
+            // Una cadena colgando de la hoja más profunda desbalancea el árbol
+            BTreeNode<Integer> deepest = nodes.get(n - 1);
+            deepest.left = new BTreeNode<>(n);
+            deepest.left.left = new BTreeNode<>(n + 1);
+            btree.adopt(nodes.get(0));
+            assertFalse(btree.isBalanced(pool));
+            assertEquals(n - n / 2, btree.totalLeaves(pool));
+
+            // Los árboles pequeños se resuelven sin usar el pool
+            BTree<Integer> small = new BTree<>();
+            for (int value = 0; value < 100; value++) small.add(value);
+            java.util.concurrent.ForkJoinPool unused = new java.util.concurrent.ForkJoinPool(1);
+            unused.shutdown();
+            assertEquals(small.totalLeaves(pool), small.totalLeaves(unused));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testFusedStatisticsMatchSeparateQueries() throws Exception {
+        assertEquals(util.TreeStats.EMPTY, util.TreeUtils.collectStatistics(new BTree<>()));
+
+        BTree<Integer> btree = new BTree<>(true);
+        for (int i = 0; i < 5000; i++) btree.add(util.Utility.random(20000) - 10000);
+        for (int i = 0; i < 1000; i++) btree.remove(util.Utility.random(20000) - 10000);
+
+        util.TreeStats stats = util.TreeUtils.collectStatistics(btree);
+        java.util.IntSummaryStatistics values = btree.stream().mapToInt(Integer::intValue).summaryStatistics();
+        assertEquals(btree.size(), stats.getCount());
+        assertEquals(btree.height(), stats.getHeight());
+        assertEquals(btree.totalLeaves(), stats.getLeaves());
+        assertEquals(btree.size(), stats.getLeaves() + stats.getOneChild() + stats.getTwoChildren());
+        assertEquals(stats.getLeaves(), stats.getTwoChildren() + 1);
+        assertEquals(values.getMin(), stats.getMin());
+        assertEquals(values.getMax(), stats.getMax());
+        assertEquals(values.getSum(), stats.getSum());
+        assertEquals(values.getAverage(), stats.getAverage(), 1e-9);
+
+        String report = util.TreeUtils.getTreeStatistics(btree);
+        assertTrue(report.contains("Número de hojas: " + stats.getLeaves() + "\n"));
+        assertTrue(report.contains("Valor máximo: " + stats.getMax() + "\n"));
+    }
+
+    @Test
+    void testVisitorWalkFusesAnalyses() throws TreeException {
+        BTree<Integer> btree = new BTree<>(true);
+        for (int value = 0; value < 2000; value++) btree.add(value);
+        AVLTree<Integer> avl = new AVLTree<>();
+        for (int value = 0; value < 2000; value++) avl.add(value);
+
+        for (Tree<Integer> tree : java.util.Arrays.<Tree<Integer>>asList(btree, avl)) {
+            assertEquals(tree.size(), tree.root().getSize());
+            assertEquals(tree.height(), tree.root().getHeight());
+
+            // Dos análisis en un mismo recorrido: los tres órdenes y el número de hojas
+            StringBuilder pre = new StringBuilder(), in = new StringBuilder(), post = new StringBuilder();
+            int[] leaves = {0};
+            TreeVisitor<Integer> traversals = new TreeVisitor<Integer>() {
+                public void preOrder(TreeNodeView<Integer> node, TreeNodeView<Integer> parent) {
+                    pre.append(node.getData()).append(' ');
+                }
+                public void inOrder(TreeNodeView<Integer> node) {
+                    in.append(node.getData()).append(' ');
+                }
+                public void postOrder(TreeNodeView<Integer> node) {
+                    post.append(node.getData()).append(' ');
+                }
+            };
+            TreeVisitor<Integer> leafCounter = new TreeVisitor<Integer>() {
+                public void preOrder(TreeNodeView<Integer> node, TreeNodeView<Integer> parent) {
+                    if (node.getLeft() == null && node.getRight() == null) leaves[0]++;
+                }
+            };
+            tree.walk(TreeVisitor.fuse(traversals, leafCounter));
+
+            assertEquals(tree.preOrder(), pre.toString().trim());
+            assertEquals(tree.inOrder(), in.toString().trim());
+            assertEquals(tree.postOrder(), post.toString().trim());
+            assertTrue(leaves[0] > 0);
+        }
+        assertEquals(btree.totalLeaves(), util.TreeUtils.collectStatistics(btree).getLeaves());
+
+        // Árboles sin nodos enlazados ofrecen una copia de su estructura
+        ArrayBTree<Integer> array = new ArrayBTree<>();
+        assertNull(array.root());
+        for (int value = 1; value <= 10; value++) array.add(value);
+        StringBuilder pre = new StringBuilder();
+        array.walk(new TreeVisitor<Integer>() {
+            public void preOrder(TreeNodeView<Integer> node, TreeNodeView<Integer> parent) {
+                pre.append(node.getData()).append(' ');
+            }
+        });
+        assertEquals(array.preOrder(), pre.toString().trim());
+        assertEquals(10, array.root().getSize());
+        assertEquals(array.height(), array.root().getHeight());
+    }
+
+    @Test
+    void testBulkLoadBuildsSameShapeAsAdd() throws TreeException {
+        for (int n = 1; n <= 600; n++) {
+            java.util.List<Integer> values = new java.util.ArrayList<>();
+            for (int value = 0; value < n; value++) values.add(value);
+            java.util.Collections.shuffle(values);
+            values.add(values.get(0)); // un repetido que debe ignorarse
+
+            BTree<Integer> looped = new BTree<>(true);
+            for (Integer value : values) looped.add(value);
+            BTree<Integer> bulk = BTree.buildFrom(values, true);
+
+            assertEquals(shape(looped), shape(bulk), "n = " + n);
+            assertEquals(looped.height(), bulk.height());
+            assertEquals(n, bulk.size());
+            assertTrue(bulk.validateStructure());
+            // Los elementos quedan en preorden en el orden recibido
+            assertEquals(collect(values.subList(0, n)), bulk.preOrder());
+        }
+
+        // Después de la carga, el árbol sigue funcionando con add/remove
+        BTree<Integer> btree = BTree.buildFrom(new int[]{5, 3, 9, 3, 1, 7, 5}, false);
+        assertEquals("1 3 5 7 9", btree.preOrder());
+        btree.addAll(java.util.Arrays.asList(2, 9, 4));
+        btree.remove(3);
+        assertEquals(6, btree.size());
+        assertTrue(btree.validateStructure());
+
+        int[] keys = new int[2_000_000];
+        for (int i = 0; i < keys.length; i++) keys[i] = util.Utility.random(Integer.MAX_VALUE);
+        long start = System.nanoTime();
+        BTree<Integer> large = BTree.buildFrom(keys, true);
+        System.out.printf("buildFrom(2M claves): %d ms, %d elementos, altura %d%n",
+                (System.nanoTime() - start) / 1_000_000, large.size(), large.height());
+        assertTrue(large.validateStructure());
+    }
+
+    // Caminos de todos los nodos en preorden: dos árboles con la misma lista tienen la misma forma
+    private java.util.List<String> shape(BTree<Integer> tree) {
+        java.util.List<String> paths = new java.util.ArrayList<>();
+        tree.walk(new TreeVisitor<Integer>() {
+            public void preOrder(TreeNodeView<Integer> node, TreeNodeView<Integer> parent) {
+                paths.add(((BTreeNode<Integer>) node).getPath() + ":" + node.getHeight() + ":" + node.getSize());
+            }
+        });
+        return paths;
+    }
+
+    @Test
+    void testRemoveAllMatchesRemovingInPostOrder() throws TreeException {
+        for (boolean indexed : new boolean[]{false, true}) {
+            java.util.List<Integer> values = new java.util.ArrayList<>();
+            for (int value = 0; value < 3000; value++) values.add(value);
+            java.util.Collections.shuffle(values);
+
+            BTree<Integer> bulk = new BTree<>(indexed);
+            BTree<Integer> oneByOne = new BTree<>(indexed);
+            for (Integer value : values) {
+                bulk.add(value);
+                oneByOne.add(value);
+            }
+
+            java.util.Set<Integer> doomed = new java.util.HashSet<>();
+            for (int value = 0; value < 3000; value++) if (value % 3 == 0 || value % 7 == 0) doomed.add(value);
+            for (Integer value : bulk.postOrderElements()) {
+                if (doomed.contains(value)) oneByOne.remove(value);
+            }
+
+            assertTrue(bulk.removeAll(doomed));
+            assertEquals(shape(oneByOne), shape(bulk));
+            assertEquals(oneByOne.preOrder(), bulk.preOrder());
+            assertEquals(oneByOne.size(), bulk.size());
+            assertTrue(bulk.validateStructure());
+            assertFalse(bulk.removeAll(doomed));
+            // como Collection.removeAll, acepta colecciones de cualquier tipo
+            assertFalse(bulk.removeAll(java.util.Arrays.asList("1", 1L)));
+            assertTrue(bulk.removeAll(java.util.Arrays.<Object>asList("1", 1)));
+            assertFalse(bulk.contains(1));
+
+            // removeIf hasta vaciar el árbol
+            assertTrue(bulk.removeIf(value -> value % 2 == 0));
+            assertTrue(bulk.validateStructure());
+            for (Integer value : bulk.preOrderElements()) assertEquals(1, value % 2);
+            assertTrue(bulk.removeIf(value -> true));
+            assertTrue(bulk.isEmpty());
+            assertTrue(bulk.validateStructure());
+        }
+    }
+
+    @Test
+    void testIndexedRemoveFollowsParentLinks() throws TreeException {
+        int[] keys = new int[1_000_000];
+        for (int i = 0; i < keys.length; i++) keys[i] = i;
+        BTree<Integer> btree = BTree.buildFrom(keys, true);
+
+        // Sin recorrer el árbol: cada borrado cuesta O(altura)
+        long start = System.nanoTime();
+        for (int value = 0; value < keys.length; value += 10) btree.remove(value);
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("100k borrados con índice sobre 1M nodos: %d ms%n", elapsed / 1_000_000);
+
+        assertEquals(900_000, btree.size());
+        assertFalse(btree.contains(500_000));
+        assertTrue(btree.contains(500_001));
+        assertTrue(btree.validateStructure());
+
+        // El mismo resultado que el borrado sobre un árbol sin índice
+        BTree<Integer> small = new BTree<>(true), plain = new BTree<>();
+        for (int value = 0; value < 500; value++) {
+            small.add(value);
+            plain.add(value);
+        }
+        for (int value = 0; value < 500; value += 3) {
+            small.remove(value);
+            plain.remove(value);
+        }
+        assertEquals(shape(plain), shape(small));
+        assertEquals(plain.preOrder(), small.preOrder());
+        assertTrue(plain.validateStructure());
+    }
+
+    // Algoritmo de inserción original (sin alturas guardadas), usado como referencia
+    private BTreeNode<Integer> referenceAdd(BTreeNode<Integer> node, Integer element) {
+        if (node == null) return new BTreeNode<>(element);
+        if (referenceHeight(node.left) <= referenceHeight(node.right))
+            node.left = referenceAdd(node.left, element);
+        else node.right = referenceAdd(node.right, element);
+        return node;
+    }
+
+    private int referenceHeight(BTreeNode<Integer> node) {
+        if (node == null) return -1;
+        return Math.max(referenceHeight(node.left), referenceHeight(node.right)) + 1;
+    }
+
+    private String referencePreOrder(BTreeNode<Integer> node) {
+        if (node == null) return "";
+        return node.data + " " + referencePreOrder(node.left) + referencePreOrder(node.right);
+    }
+
+    private String referenceInOrder(BTreeNode<Integer> node) {
+        if (node == null) return "";
+        return referenceInOrder(node.left) + node.data + " " + referenceInOrder(node.right);
+    }
+
+    private String referencePostOrder(BTreeNode<Integer> node) {
+        if (node == null) return "";
+        return referencePostOrder(node.left) + referencePostOrder(node.right) + node.data + " ";
+    }
+}
@@ -0,0 +1,151 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentBTreeTest {
+    private static final int RANGE = 20_000;
+
+    @Test
+    void testConcurrentReadersAndWritersKeepStructure() throws Exception {
+        ConcurrentBTree<Integer> tree = new ConcurrentBTree<>();
+        for (int value = 0; value < RANGE; value += 2) tree.add(value);
+
+        int threads = Math.max(4, Runtime.getRuntime().availableProcessors());
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                workers.add(pool.submit(() -> {
+                    mixedWorkload(tree, 20_000, 5);
+                    return null;
+                }));
+            }
+            // Mientras tanto, la estructura debe ser válida en cualquier instante observado
+            for (int i = 0; i < 20; i++) assertTrue(tree.validateStructure());
+            for (Future<?> worker : workers) worker.get();
+        } finally {
+            pool.shutdown();
+        }
+
+        assertTrue(tree.validateStructure());
+        int present = 0;
+        for (int value = 0; value < RANGE; value++) if (tree.contains(value)) present++;
+        assertEquals(present, tree.size());
+        assertEquals(present, tree.preOrder().split(" ").length);
+    }
+
+    @Test
+    void testReadersShareTheLockAndWritersWait() throws Exception {
+        ConcurrentBTree<Integer> tree = new ConcurrentBTree<>();
+        for (int value = 0; value < 100; value++) tree.add(value);
+
+        // un lector queda detenido a mitad de un recorrido, con el candado de lectura tomado
+        java.util.concurrent.CountDownLatch reading = new java.util.concurrent.CountDownLatch(1);
+        java.util.concurrent.CountDownLatch release = new java.util.concurrent.CountDownLatch(1);
+        StringBuilder written = new StringBuilder();
+        Appendable slowOut = new Appendable() {
+            @Override
+            public Appendable append(CharSequence text) {
+                return append(text, 0, text.length());
+            }
+
+            @Override
+            public Appendable append(CharSequence text, int start, int end) {
+                reading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                written.append(text, start, end);
+                return this;
+            }
+
+            @Override
+            public Appendable append(char c) {
+                return append(String.valueOf(c));
+            }
+        };
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        try {
+            Future<?> reader = pool.submit(() -> {
+                tree.preOrder(slowOut);
+                return null;
+            });
+            assertTrue(reading.await(10, TimeUnit.SECONDS));
+
+            // otro lector no espera
+            assertTrue(pool.submit(() -> tree.contains(50)).get(10, TimeUnit.SECONDS));
+            // un escritor sí
+            Future<?> writer = pool.submit(() -> tree.add(1_000));
+            assertThrows(TimeoutException.class, () -> writer.get(200, TimeUnit.MILLISECONDS));
+
+            release.countDown();
+            reader.get(10, TimeUnit.SECONDS);
+            writer.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            pool.shutdown();
+        }
+        assertEquals(tree.preOrder().replace(" 1000", ""), written.toString());
+        assertTrue(tree.contains(1_000));
+        assertEquals(101, tree.size());
+    }
+
+    @Test
+    void testWalkVisitsACopyThatVisitorsMayModify() throws TreeException {
+        ConcurrentBTree<Integer> tree = new ConcurrentBTree<>();
+        for (int value = 1; value <= 10; value++) tree.add(value);
+        String before = tree.preOrder();
+
+        // con el candado de lectura tomado durante el recorrido, este visitante se bloquearía
+        StringBuilder visited = new StringBuilder();
+        tree.walk(new TreeVisitor<Integer>() {
+            @Override
+            public void preOrder(TreeNodeView<Integer> node, TreeNodeView<Integer> parent) {
+                visited.append(node.getData()).append(' ');
+                tree.add(node.getData() + 100);
+            }
+        });
+        assertEquals(before, visited.toString().trim());
+        assertEquals(20, tree.size());
+        assertTrue(tree.validateStructure());
+    }
+
+    // writePercent % de escrituras (add/remove), el resto lecturas
+    private void mixedWorkload(ConcurrentBTree<Integer> tree, int operations, int writePercent) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < operations; i++) {
+            int value = random.nextInt(RANGE);
+            int kind = random.nextInt(100);
+            // otro hilo puede vaciar el árbol entre dos llamadas: comprobar isEmpty antes
+            // no alcanza, así que el árbol vacío se atiende en cada operación
+            try {
+                if (kind < writePercent) {
+                    if (random.nextBoolean()) tree.add(value);
+                    else tree.remove(value);
+                } else if (kind < 90) {
+                    tree.contains(value);
+                } else if (kind < 99) {
+                    tree.height(value);
+                    tree.height();
+                } else {
+                    tree.size();
+                }
+            } catch (TreeException e) {
+                assertEquals("Binary Tree is empty", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DurableBTreeTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRecoveryReplaysLogOnTopOfSnapshot() throws Exception {
+        Path snapshot = dir.resolve("tree.bts");
+        Path log = dir.resolve("tree.log");
+        BTree<Integer> expected = new BTree<>();
+        Random random = new Random(24);
+
+        try (DurableBTree tree = DurableBTree.open(snapshot, log, BTreeLog.Sync.NONE, 64)) {
+            for (int i = 0; i < 2_000; i++) apply(random, tree, expected);
+            tree.checkpoint();
+            assertEquals(13, Files.size(log)); //solo el registro de la época nueva
+            for (int i = 0; i < 2_000; i++) apply(random, tree, expected);
+        }
+
+        // una escritura a medias al final de la bitácora se descarta al recuperar
+        Files.write(log, new byte[]{0, 0, 0, 5, 1, 2}, StandardOpenOption.APPEND);
+
+        try (DurableBTree recovered = DurableBTree.open(snapshot, log, BTreeLog.Sync.NONE, 64)) {
+            assertEquals(expected.preOrder(), recovered.preOrder());
+            assertEquals(expected.inOrder(), recovered.inOrder());
+            assertEquals(expected.size(), recovered.size());
+
+            // y se sigue agregando después del último registro válido
+            recovered.add(1_000_000);
+            expected.add(1_000_000);
+        }
+        try (DurableBTree recovered = DurableBTree.open(snapshot, log, BTreeLog.Sync.NONE, 64)) {
+            assertEquals(expected.preOrder(), recovered.preOrder());
+        }
+    }
+
+    private void apply(Random random, DurableBTree tree, BTree<Integer> expected) throws TreeException {
+        int value = random.nextInt(1_000);
+        if (random.nextInt(3) == 0 && !expected.isEmpty()) {
+            tree.remove(value);
+            expected.remove(value);
+        } else {
+            tree.add(value);
+            expected.add(value);
+        }
+    }
+
+    @Test
+    void testInterruptedCheckpointDoesNotReplayTheLogTwice() throws Exception {
+        Path snapshot = dir.resolve("tree.bts");
+        Path log = dir.resolve("tree.log");
+        BTree<Integer> expected = new BTree<>();
+        Random random = new Random(7);
+
+        try (DurableBTree tree = DurableBTree.open(snapshot, log, BTreeLog.Sync.NONE, 64)) {
+            for (int i = 0; i < 2_000; i++) apply(random, tree, expected);
+        }
+        // caída entre el renombre del snapshot y el reinicio de la bitácora: el snapshot
+        // ya incluye la época 1 y la bitácora todavía la contiene
+        BTreeSnapshot.save(expected, snapshot, 1);
+        // reaplicar los borrados y agregados encima daría otra forma
+        BTree<Integer> twice = BTreeSnapshot.load(snapshot, false);
+        BTreeLog.replay(log, twice, 0);
+        assertNotEquals(expected.preOrder(), twice.preOrder());
+
+        try (DurableBTree recovered = DurableBTree.open(snapshot, log, BTreeLog.Sync.NONE, 64)) {
+            assertEquals(expected.preOrder(), recovered.preOrder());
+            recovered.add(5_000);
+            expected.add(5_000);
+        }
+        try (DurableBTree recovered = DurableBTree.open(snapshot, log, BTreeLog.Sync.NONE, 64)) {
+            assertEquals(expected.preOrder(), recovered.preOrder());
+        }
+    }
+
+    @Test
+    void testChangesAreLoggedBeforeTheyAreApplied() throws Exception {
+        DurableBTree tree = DurableBTree.open(dir.resolve("tree.bts"), dir.resolve("tree.log"),
+                BTreeLog.Sync.NONE, 64);
+        tree.add(1);
+        assertThrows(TreeException.class, () -> {
+            tree.remove(1);
+            tree.remove(2); // el árbol ya está vacío: no se anota nada
+        });
+        tree.close();
+
+        // la bitácora rechaza el registro: el cambio no llega al árbol
+        assertThrows(java.io.UncheckedIOException.class, () -> tree.add(2));
+        assertTrue(tree.isEmpty());
+        // y después de un error ya no se aceptan escrituras
+        assertThrows(IllegalStateException.class, () -> tree.add(3));
+        assertThrows(IllegalStateException.class, tree::clear);
+    }
+
+    @Test
+    void testCheckpointIsDurableBeforeTheLogIsReset() throws Exception {
+        Path snapshot = dir.resolve("tree.bts");
+        Path log = dir.resolve("tree.log");
+        List<Path> forced = java.util.Collections.synchronizedList(new ArrayList<>());
+        FileSync.observer = forced::add;
+        try (DurableBTree tree = DurableBTree.open(snapshot, log, BTreeLog.Sync.NONE, 64)) {
+            for (int i = 0; i < 100; i++) tree.add(i);
+            forced.clear();
+            tree.checkpoint();
+
+            // snapshot temporal forzado, directorio forzado tras el rename y solo entonces
+            // la época nueva de la bitácora
+            Path temporary = dir.resolve("tree.bts.tmp");
+            assertEquals(List.of(temporary, dir.toAbsolutePath(), log), forced);
+            assertFalse(Files.exists(temporary));
+            assertEquals(13, Files.size(log));
+        } finally {
+            FileSync.observer = null;
+        }
+    }
+
+    @Test
+    void testGroupCommitSharesFsyncs() throws Exception {
+        int threads = 8;
+        int operations = 2_000;
+        for (int maxBatch : new int[]{1, 8, 64, 512}) {
+            Path snapshot = dir.resolve("bench-" + maxBatch + ".bts");
+            Path log = dir.resolve("bench-" + maxBatch + ".log");
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try (DurableBTree tree = DurableBTree.open(snapshot, log, BTreeLog.Sync.EVERY_COMMIT, maxBatch)) {
+                List<Future<?>> writers = new ArrayList<>();
+                long start = System.nanoTime();
+                for (int t = 0; t < threads; t++) {
+                    int first = t * operations;
+                    writers.add(pool.submit(() -> {
+                        for (int i = 0; i < operations / threads; i++) tree.add(first + i);
+                        return null;
+                    }));
+                }
+                for (Future<?> writer : writers) writer.get();
+                double millis = (System.nanoTime() - start) / 1e6;
+                System.out.printf("DurableBTree, fsync por grupo, lote máx. %d: %.0f ops/s, %d commits%n",
+                        maxBatch, operations / millis * 1000, tree.commits());
+
+                assertEquals(operations, tree.size());
+                assertEquals(13L * (operations + 1), Files.size(log));
+                // cada grupo lleva a lo sumo maxBatch registros...
+                assertTrue(tree.commits() >= (operations + maxBatch - 1) / maxBatch, "commits " + tree.commits());
+                // ...y con 8 escritores esperando, los grupos comparten el fsync
+                if (maxBatch == 1) assertEquals(operations, tree.commits());
+                else assertTrue(tree.commits() < operations, "commits " + tree.commits());
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntBTreeTest {
+
+    @Test
+    void testIntBTreeMatchesBTree() throws TreeException {
+        BTree<Integer> btree = new BTree<>();
+        IntBTree intTree = new IntBTree();
+
+        for (int i = 0; i < 300; i++) {
+            int value = util.Utility.random(500);
+            btree.add(value);
+            intTree.add(value);
+        }
+        assertSameContent(btree, intTree);
+
+        for (int value = 0; value < 500; value += 3) {
+            if (btree.contains(value)) {
+                btree.remove(value);
+                intTree.remove(value);
+            }
+        }
+        assertSameContent(btree, intTree);
+
+        for (int value = 0; value < 500; value++) {
+            assertEquals(btree.contains(value), intTree.contains(value));
+            assertEquals(btree.height(value), intTree.height(value));
+            if (btree.contains(value)) {
+                assertEquals(btree.printSubTree(value), intTree.printSubTree(value));
+            }
+        }
+    }
+
+    @Test
+    void testLargeTreeUsesIndexAndParentLinks() throws TreeException {
+        // con la búsqueda recursiva por todo el árbol este ciclo sería cuadrático
+        BTree<Integer> btree = new BTree<>(true);
+        IntBTree intTree = new IntBTree();
+        java.util.Random random = new java.util.Random(6);
+        for (int i = 0; i < 300_000; i++) {
+            int value = random.nextInt(200_000);
+            if (random.nextInt(3) == 0 && !btree.isEmpty()) {
+                btree.remove(value);
+                intTree.remove(value);
+            } else {
+                btree.add(value);
+                intTree.add(value);
+            }
+        }
+        assertSameContent(btree, intTree);
+        for (int value = 0; value < 200_000; value += 11) {
+            assertEquals(btree.contains(value), intTree.contains(value));
+            assertEquals(btree.height(value), intTree.height(value));
+        }
+    }
+
+    private void assertSameContent(BTree<Integer> btree, IntBTree intTree) throws TreeException {
+        assertEquals(btree.toString(), intTree.toString());
+        assertEquals(btree.size(), intTree.size());
+        assertEquals(btree.height(), intTree.height());
+        assertEquals(btree.totalLeaves(), intTree.totalLeaves());
+        assertEquals(btree.printLeaves(), intTree.printLeaves());
+        assertEquals(btree.printNodes1Child(), intTree.printNodes1Child());
+        assertEquals(btree.printNodes2Children(), intTree.printNodes2Children());
+        assertEquals(btree.printNodesWithChildren(), intTree.printNodesWithChildren());
+    }
+}
@@ -0,0 +1,73 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapBTreeTest {
+
+    @Test
+    void testOffHeapTreeMatchesBTree() throws TreeException {
+        BTree<Integer> btree = new BTree<>();
+        try (OffHeapBTree offHeap = new OffHeapBTree()) {
+            for (int i = 0; i < 5000; i++) {
+                int value = util.Utility.random(8000);
+                btree.add(value);
+                offHeap.add(value);
+            }
+            assertEquals(btree.toString(), offHeap.toString());
+            assertEquals(btree.size(), offHeap.size());
+            assertEquals(btree.height(), offHeap.height());
+            assertEquals(btree.totalLeaves(), offHeap.totalLeaves());
+
+            java.util.List<Integer> removed = new java.util.ArrayList<>();
+            for (int value = 0; value < 8000; value += 2) {
+                if (btree.contains(value)) {
+                    btree.remove(value);
+                    offHeap.remove(value);
+                    removed.add(value);
+                }
+            }
+            assertEquals(btree.toString(), offHeap.toString());
+            for (int value = 0; value < 8000; value += 7) {
+                assertEquals(btree.contains(value), offHeap.contains(value));
+                assertEquals(btree.height(value), offHeap.height(value));
+            }
+
+            // Los registros liberados se reutilizan antes de reservar bloques nuevos
+            long reserved = offHeap.offHeapBytes();
+            for (int value : removed) offHeap.add(value);
+            assertEquals(reserved, offHeap.offHeapBytes());
+
+            offHeap.close();
+            assertThrows(IllegalStateException.class, offHeap::isEmpty);
+        }
+    }
+
+    @Test
+    void testLargeTreeUsesIndexAndParentLinks() throws TreeException {
+        // con la búsqueda recursiva por todo el árbol este ciclo sería cuadrático
+        BTree<Integer> btree = new BTree<>(true);
+        java.util.Random random = new java.util.Random(7);
+        try (OffHeapBTree offHeap = new OffHeapBTree()) {
+            for (int i = 0; i < 300_000; i++) {
+                int value = random.nextInt(200_000);
+                if (random.nextInt(3) == 0 && !btree.isEmpty()) {
+                    btree.remove(value);
+                    offHeap.remove(value);
+                } else {
+                    btree.add(value);
+                    offHeap.add(value);
+                }
+            }
+            assertEquals(btree.toString(), offHeap.toString());
+            assertEquals(btree.size(), offHeap.size());
+            assertEquals(btree.height(), offHeap.height());
+            assertEquals(btree.totalLeaves(), offHeap.totalLeaves());
+            for (int value = 0; value < 200_000; value += 11) {
+                assertEquals(btree.contains(value), offHeap.contains(value));
+                assertEquals(btree.height(value), offHeap.height(value));
+            }
+        }
+    }
+}
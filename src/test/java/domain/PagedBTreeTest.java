@@ -0,0 +1,155 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PagedBTreeTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void testPagedTreeMatchesBTreeWithSmallCache() throws Exception {
+        Path file = dir.resolve("tree.pbt");
+        BTree<Integer> btree = new BTree<>();
+        // 4 páginas de 256 registros para unos 1500 nodos: la mayoría de las páginas vive en el archivo
+        try (PagedBTree paged = new PagedBTree(file, 4)) {
+            for (int i = 0; i < 2000; i++) {
+                int value = util.Utility.random(3000);
+                btree.add(value);
+                paged.add(value);
+            }
+            assertEquals(btree.toString(), paged.toString());
+            assertEquals(btree.size(), paged.size());
+            assertEquals(btree.height(), paged.height());
+            assertEquals(btree.totalLeaves(), paged.totalLeaves());
+
+            for (int value = 0; value < 3000; value += 2) {
+                if (btree.contains(value)) {
+                    btree.remove(value);
+                    paged.remove(value);
+                }
+            }
+            assertEquals(btree.toString(), paged.toString());
+            for (int value = 0; value < 3000; value += 7) {
+                assertEquals(btree.contains(value), paged.contains(value));
+                assertEquals(btree.height(value), paged.height(value));
+            }
+
+            StringBuilder streamed = new StringBuilder();
+            paged.inOrder(streamed);
+            assertEquals(btree.inOrder(), streamed.toString());
+
+            assertTrue(paged.pageFaults() > 0);
+            assertTrue(paged.writeBacks() > 0);
+            assertEquals(4L * PagedBTree.PAGE_BYTES, paged.cacheBytes());
+        }
+
+        // el archivo conserva el árbol: se reabre con otra caché y queda igual
+        assertTrue(Files.size(file) > 4L * PagedBTree.PAGE_BYTES);
+        try (PagedBTree reopened = new PagedBTree(file, 16)) {
+            assertEquals(btree.toString(), reopened.toString());
+            assertEquals(btree.size(), reopened.size());
+            reopened.add(9_999);
+            btree.add(9_999);
+            assertEquals(btree.preOrder(), reopened.preOrder());
+
+            reopened.close();
+            assertThrows(IllegalStateException.class, reopened::isEmpty);
+        }
+    }
+
+    @Test
+    void testAddAndContainsReadOnlyAPathOfPages() throws Exception {
+        int n = 20_000;
+        try (PagedBTree paged = new PagedBTree(dir.resolve("large.pbt"), 4)) {
+            java.util.Random random = new java.util.Random(25);
+            for (int i = 0; i < n; i++) paged.add(random.nextInt());
+            int height = paged.height();
+
+            // ~160 páginas de registros: revisar duplicados recorriendo el árbol las leería todas;
+            // con el índice, add baja por un camino y sube actualizando alturas (con sus hermanos)
+            long before = paged.pageFaults();
+            for (int i = 0; i < 1_000; i++) paged.add(random.nextInt());
+            double perAdd = (paged.pageFaults() - before) / 1_000.0;
+            assertTrue(perAdd <= 3 * (height + 2), "fallos por add " + perAdd + ", altura " + height);
+
+            before = paged.pageFaults();
+            for (int i = 0; i < 1_000; i++) paged.contains(random.nextInt());
+            double perContains = (paged.pageFaults() - before) / 1_000.0;
+            assertTrue(perContains <= 3, "fallos por contains " + perContains);
+
+            for (int i = 0; i < 1_000; i++) paged.remove(random.nextInt());
+            assertTrue(paged.size() >= n);
+        }
+    }
+
+    @Test
+    void testStatisticsStreamPagesInOnePass() throws Exception {
+        Path file = dir.resolve("walk.pbt");
+        int n = 20_000;
+        BTree<Integer> btree = new BTree<>(true);
+        try (PagedBTree paged = new PagedBTree(file, 4)) {
+            java.util.Random random = new java.util.Random(22);
+            for (int i = 0; i < n; i++) {
+                int value = random.nextInt();
+                btree.add(value);
+                paged.add(value);
+            }
+        }
+        int recordPages = (n + 127) / 128; //128 registros por página
+
+        // caché para todo el archivo, abierta en frío: una pasada lee cada página una vez
+        try (PagedBTree paged = new PagedBTree(file, 2 * recordPages)) {
+            long before = paged.pageFaults();
+            assertEquals(util.TreeUtils.getTreeStatistics(btree), util.TreeUtils.getTreeStatistics(paged));
+            long faults = paged.pageFaults() - before;
+            assertTrue(faults <= recordPages + 1, "fallos " + faults + ", páginas de registros " + recordPages);
+        }
+
+        // caché pequeña: walk baja por los registros como un recorrido en inorden
+        try (PagedBTree paged = new PagedBTree(file, 4)) {
+            long before = paged.pageFaults();
+            paged.inOrder(new StringBuilder());
+            long onePass = paged.pageFaults() - before;
+            before = paged.pageFaults();
+            util.TreeUtils.getTreeStatistics(paged);
+            long statistics = paged.pageFaults() - before;
+            System.out.printf("PagedBTree, fallos de página: inorden %d, estadísticas %d%n", onePass, statistics);
+            assertTrue(statistics <= 2 * onePass, "estadísticas " + statistics + ", inorden " + onePass);
+        }
+    }
+
+    @Test
+    void testFileThatWasNotFlushedIsRejected() throws Exception {
+        Path file = dir.resolve("crash.pbt");
+        PagedBTree paged = new PagedBTree(file, 2);
+        for (int value = 0; value < 1_000; value++) paged.add(value);
+        paged.flush();
+        // más cambios, parte de ellos ya escritos al archivo al salir de la caché
+        for (int value = 1_000; value < 2_000; value++) paged.add(value);
+        assertTrue(paged.writeBacks() > 0);
+
+        // otro proceso que abriera el archivo ahora (o tras una caída) vería páginas a medias
+        IOException error = assertThrows(IOException.class, () -> new PagedBTree(file, 2));
+        assertTrue(error.getMessage().contains("not closed cleanly"), error.getMessage());
+
+        paged.close();
+        try (PagedBTree reopened = new PagedBTree(file, 2)) {
+            assertEquals(2_000, reopened.size());
+            assertTrue(reopened.contains(1_999));
+
+            // clear reutiliza los registros y las cubetas ya escritos
+            reopened.clear();
+            for (int value = 5_000; value < 5_500; value++) reopened.add(value);
+            assertEquals(500, reopened.size());
+            assertFalse(reopened.contains(1_999));
+            assertTrue(reopened.contains(5_499));
+        }
+    }
+}
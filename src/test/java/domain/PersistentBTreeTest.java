@@ -0,0 +1,120 @@
+package domain;
+
+import org.junit.jupiter.api.Test;
+import util.TreeUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PersistentBTreeTest {
+
+    @Test
+    void testSameShapeAsBTree() throws TreeException {
+        BTree<Integer> mutable = new BTree<>();
+        PersistentBTree<Integer> persistent = new PersistentBTree<>();
+        Random random = new Random(22);
+        for (int i = 0; i < 3_000; i++) {
+            int value = random.nextInt(500);
+            if (random.nextInt(3) == 0 && !mutable.isEmpty()) {
+                mutable.remove(value);
+                persistent.remove(value);
+            } else {
+                mutable.add(value);
+                persistent.add(value);
+            }
+            assertEquals(mutable.isEmpty(), persistent.isEmpty());
+            if (i % 100 == 0 && !mutable.isEmpty()) {
+                assertEquals(mutable.preOrder(), persistent.preOrder());
+                assertEquals(mutable.inOrder(), persistent.inOrder());
+            }
+        }
+        assertEquals(mutable.preOrder(), persistent.preOrder());
+        assertEquals(mutable.postOrder(), persistent.postOrder());
+        assertEquals(mutable.size(), persistent.size());
+        assertEquals(mutable.height(), persistent.height());
+        assertEquals(mutable.height(mutable.root().getData()), persistent.height(persistent.root().getData()));
+        assertEquals(TreeUtils.getTreeStatistics(mutable), TreeUtils.getTreeStatistics(persistent));
+        assertEquals(TreeUtils.treeToString(mutable), TreeUtils.treeToString(persistent));
+    }
+
+    @Test
+    void testSnapshotIsIsolatedAndSharesStructure() throws TreeException {
+        PersistentBTree<Integer> tree = new PersistentBTree<>();
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) values.add(i);
+        Collections.shuffle(values, new Random(7));
+        for (int value : values) tree.add(value);
+
+        PersistentBTree<Integer> snapshot = tree.snapshot();
+        String before = TreeUtils.generateCompleteReport(snapshot);
+
+        tree.add(5_000);
+        tree.remove(values.get(0));
+        tree.remove(values.get(500));
+
+        // la versión anterior no cambia
+        assertEquals(before, TreeUtils.generateCompleteReport(snapshot));
+        assertEquals(1_000, snapshot.size());
+        assertEquals(999, tree.size());
+        assertFalse(snapshot.contains(5_000));
+        assertTrue(tree.contains(5_000));
+
+        // solo los caminos copiados son nodos nuevos; el resto se comparte
+        Map<TreeNodeView<Integer>, Boolean> old = new IdentityHashMap<>();
+        snapshot.walk(new TreeVisitor<Integer>() {
+            @Override
+            public void preOrder(TreeNodeView<Integer> node, TreeNodeView<Integer> parent) {
+                old.put(node, true);
+            }
+        });
+        int[] fresh = new int[1];
+        tree.walk(new TreeVisitor<Integer>() {
+            @Override
+            public void preOrder(TreeNodeView<Integer> node, TreeNodeView<Integer> parent) {
+                if (!old.containsKey(node)) fresh[0]++;
+            }
+        });
+        assertTrue(fresh[0] <= 3 * 2 * (tree.height() + 1), "nodos nuevos: " + fresh[0]);
+    }
+
+    @Test
+    void testReadersUseSnapshotsWhileWriterMutates() throws Exception {
+        PersistentBTree<Integer> tree = new PersistentBTree<>();
+        for (int i = 0; i < 2_000; i++) tree.add(i);
+
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            Random random = new Random(1);
+            try {
+                for (int i = 0; i < 20_000; i++) {
+                    int value = random.nextInt(4_000);
+                    if (random.nextBoolean()) tree.add(value);
+                    else tree.remove(value);
+                }
+            } catch (Throwable e) {
+                failure.set(e); //se relanza en el hilo de la prueba después de join
+            } finally {
+                done.set(true);
+            }
+        });
+        writer.start();
+        do {
+            PersistentBTree<Integer> snapshot = tree.snapshot();
+            if (snapshot.isEmpty()) continue;
+            String report = TreeUtils.generateCompleteReport(snapshot);
+            assertEquals(report, TreeUtils.generateCompleteReport(snapshot));
+            assertEquals(snapshot.size(), snapshot.preOrder().split(" ").length);
+        } while (!done.get());
+        writer.join();
+        if (failure.get() != null) throw new AssertionError("el escritor falló", failure.get());
+    }
+}
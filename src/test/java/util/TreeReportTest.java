@@ -0,0 +1,105 @@
+package util;
+
+import domain.BTree;
+import domain.TreeException;
+import domain.TreeNodeView;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TreeReportTest {
+
+    @Test
+    void testSingleTraversalReportMatchesSeparateCalls() throws TreeException {
+        BTree<Integer> btree = new BTree<>(true);
+        for (int i = 0; i < 300; i++) btree.add(Utility.random(1000));
+        for (int i = 0; i < 50; i++) btree.remove(Utility.random(1000));
+
+        assertEquals(legacyReport(btree), TreeUtils.generateCompleteReport(btree));
+
+        BTree<Integer> empty = new BTree<>();
+        assertEquals("=== REPORTE COMPLETO DEL ÁRBOL BINARIO ===\n\nEl árbol está vacío.\n",
+                TreeUtils.generateCompleteReport(empty));
+    }
+
+    @Test
+    void testSectionBudgetBoundsTheReport() {
+        BTree<Integer> btree = new BTree<>(true);
+        for (int value = 0; value < 200_000; value++) btree.add(value);
+
+        StringBuilder report = new StringBuilder();
+        TreeUtils.writeCompleteReport(btree, report, 1000);
+        // 8 secciones, la de recorridos con tres búferes: el reporte queda acotado
+        assertTrue(report.length() < 12_000, "length " + report.length());
+        assertTrue(report.toString().contains("[sección truncada a 1000 caracteres]"));
+        assertTrue(report.toString().contains("Número de elementos: 200000\n"));
+    }
+
+    @Test
+    void testDefaultReportIsBounded() {
+        BTree<Integer> btree = new BTree<>(true);
+        for (int value = 0; value < 300_000; value++) btree.add(value);
+
+        // cada recorrido ocupa más de 2M caracteres; con el presupuesto por omisión se recorta
+        String report = TreeUtils.generateCompleteReport(btree);
+        assertTrue(report.length() < 10L * (TreeReport.DEFAULT_SECTION_BUDGET + 100), "length " + report.length());
+        assertTrue(report.contains("[sección truncada a " + TreeReport.DEFAULT_SECTION_BUDGET + " caracteres]"));
+        assertTrue(report.contains("Número de elementos: 300000\n"));
+    }
+
+    @Test
+    void testPluggableSection() throws IOException, TreeException {
+        BTree<Integer> btree = new BTree<>();
+        for (int value = 1; value <= 10; value++) btree.add(value);
+
+        // Sección propia: suma de los elementos de nivel par, junto a una estándar
+        ReportSection<Integer> evenLevels = new ReportSection<Integer>() {
+            private long sum;
+            private int depth;
+
+            @Override
+            public void preOrder(TreeNodeView<Integer> node, TreeNodeView<Integer> parent) {
+                if (depth % 2 == 0) sum += node.getData();
+                depth++;
+            }
+
+            @Override
+            public void postOrder(TreeNodeView<Integer> node) {
+                depth--;
+            }
+
+            @Override
+            public void finish(Appendable out) throws IOException {
+                out.append("Suma de niveles pares: ").append(String.valueOf(sum)).append("\n");
+            }
+        };
+        StringBuilder out = new StringBuilder();
+        new TreeReport<>(TreeReport.balance(), evenLevels).write(btree, out);
+
+        long expected = 0;
+        for (Integer value : btree.preOrderElements()) {
+            if (btree.height(value) % 2 == 0) expected += value;
+        }
+        assertEquals("¿Está balanceado?: SÍ\n\nSuma de niveles pares: " + expected + "\n", out.toString());
+    }
+
+    // Reporte armado con una llamada (y un recorrido) por sección, como se hacía antes
+    private String legacyReport(BTree<Integer> tree) throws TreeException {
+        return "=== REPORTE COMPLETO DEL ÁRBOL BINARIO ===\n\n"
+                + TreeUtils.getTreeStatistics(tree) + "\n"
+                + "¿Está balanceado?: " + (TreeUtils.isBalanced(tree) ? "SÍ" : "NO") + "\n\n"
+                + "=== RECORRIDOS ===\n"
+                + "PreOrder:  " + tree.preOrder() + "\n"
+                + "InOrder:   " + tree.inOrder() + "\n"
+                + "PostOrder: " + tree.postOrder() + "\n\n"
+                + "=== INFORMACIÓN DETALLADA DE NODOS ===\n"
+                + tree.printLeaves() + "\n\n"
+                + tree.printNodes1Child() + "\n"
+                + tree.printNodes2Children() + "\n"
+                + tree.printNodesWithChildren() + "\n"
+                + "\n=== ESTRUCTURA VISUAL ===\n"
+                + TreeUtils.treeToString(tree);
+    }
+}
@@ -0,0 +1,82 @@
+package util;
+
+import domain.AVLTree;
+import domain.ArrayBTree;
+import domain.BTree;
+import domain.BTreeLog;
+import domain.ConcurrentBTree;
+import domain.DurableBTree;
+import domain.IntBTree;
+import domain.OffHeapBTree;
+import domain.PagedBTree;
+import domain.PersistentBTree;
+import domain.Tree;
+import domain.TreeException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TreeUtilsTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void testEveryTreeImplementationReportsItsStructure() throws Exception {
+        int[] values = new int[300];
+        Random random = new Random(22);
+        for (int i = 0; i < values.length; i++) values[i] = random.nextInt(1_000);
+
+        BTree<Integer> expected = new BTree<>();
+        fill(expected, values);
+        String structure = TreeUtils.treeToString(expected);
+        String statistics = TreeUtils.getTreeStatistics(expected);
+        String report = TreeUtils.generateCompleteReport(expected);
+
+        // mismo algoritmo de inserción que BTree: misma forma y mismo texto
+        try (OffHeapBTree offHeap = new OffHeapBTree();
+             PagedBTree paged = new PagedBTree(dir.resolve("tree.pbt"), 2);
+             DurableBTree durable = DurableBTree.open(dir.resolve("tree.bts"), dir.resolve("tree.log"),
+                     BTreeLog.Sync.NONE, 64)) {
+            Tree<?>[] sameShape = {new BTree<Integer>(true), new IntBTree(), offHeap, paged,
+                    new ConcurrentBTree<Integer>(), durable, new PersistentBTree<Integer>()};
+            for (Tree<?> tree : sameShape) {
+                @SuppressWarnings("unchecked") //todos guardan Integer
+                Tree<Integer> integers = (Tree<Integer>) tree;
+                String name = tree.getClass().getSimpleName();
+                assertEquals("Árbol vacío", TreeUtils.treeToString(integers), name);
+                assertEquals("El árbol está vacío", TreeUtils.getTreeStatistics(integers), name);
+
+                fill(integers, values);
+                assertEquals(structure, TreeUtils.treeToString(integers), name);
+                assertEquals(statistics, TreeUtils.getTreeStatistics(integers), name);
+                assertEquals(report, TreeUtils.generateCompleteReport(integers), name);
+            }
+        }
+
+        // otra forma: las estadísticas deben coincidir con las del propio árbol
+        Tree<?>[] otherShape = {new ArrayBTree<Integer>(), new ArrayBTree<Integer>(true), new AVLTree<Integer>()};
+        for (Tree<?> tree : otherShape) {
+            @SuppressWarnings("unchecked") //todos guardan Integer
+            Tree<Integer> integers = (Tree<Integer>) tree;
+            String name = tree.getClass().getSimpleName();
+            fill(integers, values);
+
+            TreeStats stats = TreeUtils.collectStatistics(integers);
+            assertEquals(integers.size(), stats.getCount(), name);
+            assertEquals(integers.height(), stats.getHeight(), name);
+            assertEquals(expected.size(), stats.getCount(), name);
+            assertEquals(expected.stream().mapToLong(Integer::longValue).sum(), stats.getSum(), name);
+            // una línea por nodo después de las dos líneas de título
+            assertEquals(integers.size() + 2, TreeUtils.treeToString(integers).split("\n").length, name);
+            assertTrue(TreeUtils.generateCompleteReport(integers).contains("PreOrder:  " + integers.preOrder() + "\n"), name);
+        }
+    }
+
+    private static void fill(Tree<Integer> tree, int[] values) throws TreeException {
+        for (int value : values) tree.add(value);
+    }
+}
@@ -0,0 +1,97 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UtilityTest {
+
+    @Test
+    void testCompareMatchesPreviousResults() {
+        Object[][] pairs = {
+                {1, 2}, {2, 1}, {7, 7}, {Integer.MIN_VALUE, Integer.MAX_VALUE},
+                {"abc", "abd"}, {"zeta", "alfa"}, {"igual", "igual"},
+                {'a', 'z'}, {'z', 'a'}, {'q', 'q'},
+                {1, "1"}, {"a", 'a'}, {null, 1}, {1, null}, {new Object(), new Object()}
+        };
+        for (Object[] pair : pairs) {
+            assertEquals(legacyCompare(pair[0], pair[1]), Utility.compare(pair[0], pair[1]),
+                    "compare(" + pair[0] + ", " + pair[1] + ")");
+        }
+
+        // Otras clases Comparable del mismo tipo ahora usan su orden natural
+        assertEquals(-1, Utility.compare(1.5, 2.5));
+        assertEquals(1, Utility.compare(10L, 3L));
+        assertEquals(2, Utility.compare(1.5, 2L));
+    }
+
+    @Test
+    void testCompareResolvesComparatorPerClass() {
+        java.time.LocalDate early = java.time.LocalDate.of(2020, 1, 1);
+        java.time.LocalDate late = java.time.LocalDate.of(2021, 1, 1);
+        assertEquals(-1, Utility.compare(early, late));
+        assertEquals(1, Utility.compare(late, early));
+        assertEquals(0, Utility.compare(early, java.time.LocalDate.of(2020, 1, 1)));
+        // la misma clase se sigue resolviendo igual en llamadas posteriores
+        for (int i = 0; i < 1000; i++) assertEquals(-1, Utility.compare(early, late));
+
+        // clases distintas, aunque sean Comparable, no se pueden comparar
+        assertEquals(2, Utility.compare(early, "2020-01-01"));
+        assertEquals(2, Utility.compare(new Object(), new Object()));
+    }
+
+    @Test
+    void benchmarkCompare() {
+        Object[] integers = new Object[1024];
+        Object[] strings = new Object[1024];
+        Object[] characters = new Object[1024];
+        for (int i = 0; i < integers.length; i++) {
+            integers[i] = Utility.random(10000);
+            strings[i] = "key" + Utility.random(10000);
+            characters[i] = (char) ('a' + Utility.random(26));
+        }
+
+        System.out.println("=== COSTO POR LLAMADA DE Utility.compare (ns) ===");
+        for (Object[] data : java.util.Arrays.asList(integers, strings, characters)) {
+            // calentamiento para que el JIT compile ambas versiones
+            measure(data, true);
+            measure(data, false);
+            System.out.println(data[0].getClass().getSimpleName()
+                    + " -> antes: " + Utility.format(measure(data, true))
+                    + ", después: " + Utility.format(measure(data, false)));
+        }
+    }
+
+    private double measure(Object[] data, boolean legacy) {
+        int rounds = 2000;
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int r = 0; r < rounds; r++) {
+            for (int i = 1; i < data.length; i++) {
+                checksum += legacy ? legacyCompare(data[i - 1], data[i]) : Utility.compare(data[i - 1], data[i]);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        assertTrue(checksum > Long.MIN_VALUE); // evita que el JIT elimine el ciclo
+        return (double) elapsed / (rounds * (data.length - 1));
+    }
+
+    // Implementación anterior de Utility.compare, usada como referencia
+    private static int legacyCompare(Object a, Object b) {
+        switch (Utility.instanceOf(a, b)) {
+            case "Integer":
+                Integer int1 = (Integer) a;
+                Integer int2 = (Integer) b;
+                return int1 < int2 ? -1 : int1 > int2 ? 1 : 0;
+            case "String":
+                String str1 = (String) a;
+                String str2 = (String) b;
+                return str1.compareTo(str2) < 0 ? -1 : str1.compareTo(str2) > 0 ? 1 : 0;
+            case "Character":
+                Character ch1 = (Character) a;
+                Character ch2 = (Character) b;
+                return ch1.compareTo(ch2) < 0 ? -1 : ch1.compareTo(ch2) > 0 ? 1 : 0;
+        }
+        return 2;
+    }
+}